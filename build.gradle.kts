@@ -36,6 +36,9 @@ val junitVersion = "6.0.1"
 val mockitoVersion = "5.16.1"
 val assertjVersion = "3.27.3"
 val testcontainersVersion = "2.0.1"
+val jmhVersion = "1.37"
+val reactorVersion = "3.7.9"
+val micrometerVersion = "1.15.3"
 
 sourceSets {
     create("integrationTest", Action<SourceSet> {
@@ -48,6 +51,13 @@ sourceSets {
         compileClasspath += sourceSets.main.get().output + sourceSets.test.get().output
         runtimeClasspath += sourceSets.main.get().output + sourceSets.test.get().output
     })
+    create("jmh", Action<SourceSet> {
+        java {
+            srcDir("src/jmh/java")
+        }
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    })
 }
 
 val processBuildContext = tasks.register<ProcessResources>("processBuildContext") {
@@ -71,6 +81,11 @@ val integrationTestRuntimeOnly : Configuration by configurations.getting {
     extendsFrom(configurations.testRuntimeOnly.get())
 }
 
+val jmhImplementation : Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+val jmhAnnotationProcessor : Configuration by configurations.getting
+
 val copyHSSJar = tasks.register<Copy>("copyHSSJar") {
     description = "Copies Hazelcast Spring Session Jar for usage in Docker tests"
     group = "verification"
@@ -112,6 +127,21 @@ val integrationTest = tasks.register<Test>("integrationTest") {
     }
 }
 
+tasks.register<JavaExec>("jmh") {
+    description = "Runs JMH benchmarks. Use -PjmhArgs=\"<JMH options>\" to select benchmarks and parameters."
+    group = "verification"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    val jmhArgs = providers.gradleProperty("jmhArgs").orNull
+    args(jmhArgs?.split(" ")?.filter { it.isNotBlank() } ?: emptyList<String>())
+    args("-rf", "json", "-rff", resultFile.path)
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+}
+
 tasks.check {
     dependsOn(integrationTest)
     finalizedBy(tasks.jacocoTestReport, tasks.jacocoTestCoverageVerification)
@@ -126,6 +156,11 @@ dependencies {
     api("org.springframework:spring-context:$springFrameworkVersion")
     implementation("org.springframework:spring-beans:$springFrameworkVersion")
     implementation("org.springframework:spring-core:$springFrameworkVersion")
+    // reactive session repository, optional
+    compileOnly("org.springframework:spring-web:$springFrameworkVersion")
+    compileOnly("io.projectreactor:reactor-core:$reactorVersion")
+    // metrics, optional
+    compileOnly("io.micrometer:micrometer-core:$micrometerVersion")
 
     // other
     implementation("org.jspecify:jspecify:1.0.0")
@@ -143,6 +178,8 @@ dependencies {
     testImplementation("org.springframework.security:spring-security-core:$springSecurityVersion")
     testImplementation("org.springframework:spring-test:$springFrameworkVersion")
     testImplementation("org.springframework:spring-web:$springFrameworkVersion")
+    testImplementation("io.projectreactor:reactor-core:$reactorVersion")
+    testImplementation("io.micrometer:micrometer-core:$micrometerVersion")
 
     testImplementation("com.hazelcast:hazelcast:$hazelcastVersion:tests")
     // for hazelcast test network assertions
@@ -153,6 +190,10 @@ dependencies {
 
     integrationTestImplementation("org.testcontainers:testcontainers:$testcontainersVersion")
     integrationTestImplementation("org.apache.logging.log4j:log4j-slf4j2-impl:2.25.2")
+
+    jmhImplementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    jmhImplementation("org.apache.logging.log4j:log4j-slf4j2-impl:2.25.2")
+    jmhAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 tasks.test {
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.session.HazelcastIndexedSessionRepository.HazelcastSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+/**
+ * JMH benchmarks for the hot paths of {@link HazelcastIndexedSessionRepository}.
+ * <p>
+ * Every benchmark runs against a single embedded member, either directly or through a client connected to it,
+ * so the numbers include one network hop in the {@link Topology#CLIENT} case. Sessions are pre-populated
+ * in the trial setup, benchmarks then pick a random one per invocation.
+ * <p>
+ * Run with {@code ./gradlew jmh}, selecting benchmarks if needed, e.g.
+ * {@code ./gradlew jmh -PjmhArgs="HazelcastIndexedSessionRepositoryBenchmark.findById -p topology=CLIENT"}.
+ * <p>
+ * The default parameters are a small representative set, so that a full run takes minutes rather than hours.
+ * Other values are listed next to each parameter, widen the space with JMH's {@code -p} option, e.g.
+ * {@code -PjmhArgs="-p attributeCount=1,10,30 -p saveMode=ON_SET_ATTRIBUTE,ON_GET_ATTRIBUTE,ALWAYS"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {
+        "--add-opens", "java.base/java.lang=ALL-UNNAMED",
+        "--add-opens", "java.base/java.nio=ALL-UNNAMED",
+        "--add-opens", "java.base/sun.nio.ch=ALL-UNNAMED",
+        "--add-opens", "java.base/java.util=ALL-UNNAMED",
+        "--add-opens", "java.base/java.util.concurrent=ALL-UNNAMED",
+        "--add-opens", "java.management/sun.management=ALL-UNNAMED",
+        "--add-opens", "jdk.management/com.sun.management.internal=ALL-UNNAMED",
+        "-Dhazelcast.phone.home.enabled=false",
+        "-Dhazelcast.logging.type=slf4j"
+})
+public class HazelcastIndexedSessionRepositoryBenchmark {
+
+    private static final int SESSION_COUNT = 1_000;
+
+    private static final int PRINCIPAL_COUNT = 100;
+
+    public enum Topology {
+        EMBEDDED,
+        CLIENT
+    }
+
+    @Param({"EMBEDDED", "CLIENT"})
+    Topology topology;
+
+    /**
+     * Also interesting: 1, 30.
+     */
+    @Param({"10"})
+    int attributeCount;
+
+    /**
+     * Also interesting: 1024.
+     */
+    @Param({"64", "16384"})
+    int attributeSize;
+
+    /**
+     * Also interesting: IMMEDIATE.
+     */
+    @Param({"ON_SAVE"})
+    FlushMode flushMode;
+
+    /**
+     * Also interesting: ON_GET_ATTRIBUTE, ALWAYS.
+     */
+    @Param({"ON_SET_ATTRIBUTE"})
+    SaveMode saveMode;
+
+    /**
+     * Also interesting: false, to measure the lock-based fallback.
+     */
+    @Param({"true"})
+    boolean deployedOnAllMembers;
+
+    private HazelcastInstance member;
+
+    private HazelcastInstance client;
+
+    private HazelcastIndexedSessionRepository repository;
+
+    private String[] sessionIds;
+
+    private byte[] attributeValue;
+
+    /**
+     * Newly created sessions reuse a bounded set of ids, so that {@link #saveNewSession()} overwrites existing
+     * entries instead of growing the map for the whole measurement.
+     */
+    private final AtomicLong newSessionCounter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config config = HazelcastSessionConfiguration.applySerializationConfig(new Config());
+        config.setClusterName("hss-benchmark-" + UUID.randomUUID());
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getAutoDetectionConfig().setEnabled(false);
+        joinConfig.getMulticastConfig().setEnabled(false);
+        this.member = Hazelcast.newHazelcastInstance(config);
+
+        HazelcastInstance instance = this.member;
+        if (this.topology == Topology.CLIENT) {
+            Address address = this.member.getCluster().getLocalMember().getAddress();
+            ClientConfig clientConfig = HazelcastSessionConfiguration.applySerializationConfig(new ClientConfig());
+            clientConfig.setClusterName(config.getClusterName());
+            clientConfig.getNetworkConfig().addAddress(address.getHost() + ":" + address.getPort());
+            this.client = HazelcastClient.newHazelcastClient(clientConfig);
+            instance = this.client;
+        }
+
+        this.repository = new HazelcastIndexedSessionRepository(instance)
+                .setFlushMode(this.flushMode)
+                .setSaveMode(this.saveMode)
+                .setDeployedOnAllMembers(this.deployedOnAllMembers);
+        this.repository.afterPropertiesSet();
+
+        this.attributeValue = new byte[this.attributeSize];
+        ThreadLocalRandom.current().nextBytes(this.attributeValue);
+
+        this.sessionIds = new String[SESSION_COUNT];
+        for (int i = 0; i < SESSION_COUNT; i++) {
+            HazelcastSession session = this.repository.createSession();
+            session.setAttribute(PRINCIPAL_NAME_INDEX_NAME, principalName(i));
+            populateAttributes(session);
+            this.repository.save(session);
+            this.sessionIds[i] = session.getId();
+        }
+        this.repository.setSessionIdGenerator(
+                () -> "new-session-" + (this.newSessionCounter.getAndIncrement() % SESSION_COUNT));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.repository.destroy();
+        if (this.client != null) {
+            this.client.shutdown();
+        }
+        this.member.shutdown();
+    }
+
+    @Benchmark
+    public HazelcastSession createSession() {
+        return this.repository.createSession();
+    }
+
+    @Benchmark
+    public HazelcastSession saveNewSession() {
+        HazelcastSession session = this.repository.createSession();
+        populateAttributes(session);
+        this.repository.save(session);
+        return session;
+    }
+
+    /**
+     * Typical request: reads one attribute, modifies another one and touches the session.
+     */
+    @Benchmark
+    public HazelcastSession saveAttributeChange() {
+        HazelcastSession session = this.repository.findById(randomSessionId());
+        session.getAttribute("attribute0");
+        session.setAttribute("attribute" + (this.attributeCount - 1), this.attributeValue);
+        session.setLastAccessedTime(Instant.now());
+        this.repository.save(session);
+        return session;
+    }
+
+    /**
+     * Request which does not modify the session besides touching it.
+     */
+    @Benchmark
+    public HazelcastSession saveLastAccessedTimeOnly() {
+        HazelcastSession session = this.repository.findById(randomSessionId());
+        session.setLastAccessedTime(Instant.now());
+        this.repository.save(session);
+        return session;
+    }
+
+    @Benchmark
+    public HazelcastSession findById() {
+        return this.repository.findById(randomSessionId());
+    }
+
+    @Benchmark
+    public Map<String, HazelcastSession> findByPrincipalName() {
+        String principalName = principalName(ThreadLocalRandom.current().nextInt(PRINCIPAL_COUNT));
+        return this.repository.findByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, principalName);
+    }
+
+    private void populateAttributes(HazelcastSession session) {
+        for (int i = 0; i < this.attributeCount; i++) {
+            session.setAttribute("attribute" + i, this.attributeValue);
+        }
+    }
+
+    private String randomSessionId() {
+        return this.sessionIds[ThreadLocalRandom.current().nextInt(SESSION_COUNT)];
+    }
+
+    private static String principalName(int index) {
+        return "user-" + (index % PRINCIPAL_COUNT);
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.session.IndexResolver;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+
+import static com.hazelcast.spring.session.BackingMapSession.PRINCIPAL_NAME_ATTRIBUTES;
+import static org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+/**
+ * Base of the sessions returned by {@link HazelcastIndexedSessionRepository} and
+ * {@link ReactiveHazelcastSessionRepository}. It wraps a {@link BackingMapSession} and keeps track of changes made
+ * since last save, so that only those have to be sent to the cluster.
+ *
+ * @since 4.1.0
+ */
+abstract class AbstractHazelcastSession implements Session {
+
+    static final String SPRING_SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
+
+    private final BackingMapSession delegate;
+
+    boolean isNew;
+
+    boolean sessionIdChanged;
+
+    boolean lastAccessedTimeChanged;
+
+    boolean maxInactiveIntervalChanged;
+
+    boolean principalNameChanged;
+
+    String originalId;
+
+    /**
+     * Last accessed time as known to be stored in the cluster.
+     */
+    private Instant storedLastAccessedTime;
+
+    /**
+     * Principal name as known to be stored in the cluster.
+     */
+    @Nullable
+    private String storedPrincipalName;
+
+    final Map<String, AttributeValue> delta = new HashMap<>();
+
+    AbstractHazelcastSession(@NonNull BackingMapSession cached, boolean isNew, @NonNull SaveMode saveMode) {
+        this.delegate = cached;
+        this.isNew = isNew;
+        this.originalId = cached.getId();
+        this.storedLastAccessedTime = cached.getLastAccessedTime();
+        this.storedPrincipalName = isNew ? null : cached.getPrincipalName();
+        if (this.isNew || (saveMode == SaveMode.ALWAYS)) {
+            cached.getAttributeNames()
+                  .forEach((attributeName) -> registerDelta(attributeName, cached.getAttribute(attributeName)));
+        }
+    }
+
+    abstract SaveMode saveMode();
+
+    abstract SerializationService serializationService();
+
+    abstract IndexResolver<Session> indexResolver();
+
+    abstract String generateSessionId();
+
+    /**
+     * Called after the session was modified by any of its {@link Session} methods.
+     */
+    void afterChange() {
+    }
+
+    /**
+     *  New principalName will be registered in {@link BackingMapSession#setAttribute}, so in case of these attributes
+     *  we only mark that there was a change.
+     *  <p>
+     *  Otherwise changed attribute will be added to {@link #delta}.
+     */
+    private void registerDelta(String attributeName, @Nullable AttributeValue attribute) {
+        if (PRINCIPAL_NAME_ATTRIBUTES.contains(attributeName)) {
+            this.principalNameChanged = true;
+            return;
+        }
+        this.delta.put(attributeName, attribute);
+    }
+
+    boolean principalNameChanged() {
+        return this.principalNameChanged;
+    }
+
+    /**
+     * Returns true if the principal name differs from the stored one, unlike {@link #principalNameChanged()}
+     * which is also true if the principal attributes were only rewritten or read.
+     */
+    boolean principalNameReassigned() {
+        return !Objects.equals(this.storedPrincipalName, this.delegate.getPrincipalName());
+    }
+
+    @Override
+    @NonNull
+    public String getId() {
+        return this.delegate.getId();
+    }
+
+    @Override
+    @NonNull
+    public String changeSessionId() {
+        String newSessionId = generateSessionId();
+        this.delegate.setId(newSessionId);
+        this.sessionIdChanged = true;
+        return newSessionId;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(@NonNull String attributeName) {
+        AttributeValue attributeValue = this.delegate.getAttribute(attributeName);
+        if (attributeValue == null) {
+            return null;
+        }
+        attributeValue.deserialize(serializationService());
+        if (saveMode() == SaveMode.ON_GET_ATTRIBUTE) {
+            registerDelta(attributeName, attributeValue);
+        }
+        return (T) attributeValue.object();
+    }
+
+    @Override
+    @NonNull
+    public Set<String> getAttributeNames() {
+        return this.delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(@NonNull String attributeName, @Nullable Object attributeValue) {
+        if (attributeValue == null) {
+            this.delegate.removeAttribute(attributeName);
+            this.delta.put(attributeName, null);
+        } else {
+            AttributeValue value = AttributeValue.deserialized(attributeValue);
+            this.delegate.setAttribute(attributeName, value);
+            registerDelta(attributeName, value);
+        }
+        if (SPRING_SECURITY_CONTEXT.equals(attributeName)) {
+            Map<String, String> indexes = indexResolver().resolveIndexesFor(this);
+            String principal = (attributeValue != null) ? indexes.get(PRINCIPAL_NAME_INDEX_NAME) : null;
+            this.delegate.setPrincipalName(principal);
+            this.principalNameChanged = true;
+        }
+        afterChange();
+    }
+
+    @Override
+    public void removeAttribute(@NonNull String attributeName) {
+        setAttribute(attributeName, null);
+    }
+
+    @Override
+    @NonNull
+    public Instant getCreationTime() {
+        return this.delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(@NonNull Instant lastAccessedTime) {
+        this.delegate.setLastAccessedTime(lastAccessedTime);
+        this.lastAccessedTimeChanged = true;
+        afterChange();
+    }
+
+    @Override
+    @NonNull
+    public Instant getLastAccessedTime() {
+        return this.delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(@NonNull Duration interval) {
+        this.delegate.setMaxInactiveInterval(interval);
+        this.maxInactiveIntervalChanged = true;
+        afterChange();
+    }
+
+    @Override
+    @NonNull
+    public Duration getMaxInactiveInterval() {
+        return this.delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return this.delegate.isExpired();
+    }
+
+    BackingMapSession getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Serializes the session and the changed attributes, encoding those at least {@code codecThreshold} bytes long
+     * by given codec.
+     *
+     * @param skipUnchanged if true, attributes which were only read and whose serialized form did not change
+     *                      are removed from {@link #delta}
+     */
+    void prepareAttributesSerializedForm(SerializationService serializationService, @Nullable AttributeCodec codec,
+                                         int codecThreshold, boolean skipUnchanged) {
+        Iterator<AttributeValue> deltaValues = this.delta.values().iterator();
+        while (deltaValues.hasNext()) {
+            AttributeValue attributeValue = deltaValues.next();
+            if (attributeValue == null || attributeValue.objectBytes() == null) {
+                // removed or set attribute, new values are serialized below
+                continue;
+            }
+            // attribute was read, its object might have been modified in place
+            boolean changed = !attributeValue.isSerializedOnly()
+                    && attributeValue.reserialize(serializationService, codec, codecThreshold);
+            if (!changed && skipUnchanged) {
+                deltaValues.remove();
+            }
+        }
+        this.delegate.prepareAttributesSerializedForm(serializationService, codec, codecThreshold);
+        this.delta.forEach((attributeName, attributeValue) -> {
+            if (attributeValue != null) {
+                attributeValue.serialize(serializationService, codec, codecThreshold);
+            }
+        });
+    }
+
+    boolean hasChanges() {
+        return this.lastAccessedTimeChanged || this.maxInactiveIntervalChanged || !this.delta.isEmpty()
+                || this.principalNameChanged;
+    }
+
+    /**
+     * Returns true if the only change since last save is an update of last accessed time by less
+     * than {@code granularity}.
+     */
+    boolean isOnlyTouchedWithin(@NonNull Duration granularity) {
+        if (this.isNew || this.sessionIdChanged || !this.lastAccessedTimeChanged || this.maxInactiveIntervalChanged
+                || !this.delta.isEmpty() || this.principalNameChanged) {
+            return false;
+        }
+        return Duration.between(this.storedLastAccessedTime, this.delegate.getLastAccessedTime())
+                       .compareTo(granularity) < 0;
+    }
+
+    void clearChangeFlags() {
+        this.isNew = false;
+        this.sessionIdChanged = false;
+        this.lastAccessedTimeChanged = false;
+        this.maxInactiveIntervalChanged = false;
+        this.principalNameChanged = false;
+        this.originalId = this.delegate.getId();
+        this.storedLastAccessedTime = this.delegate.getLastAccessedTime();
+        this.storedPrincipalName = this.delegate.getPrincipalName();
+        this.delta.clear();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ApplicationEventPublisher} handing events over to a bounded queue, from which they are published by
+ * the given executor, so that listeners do not run on Hazelcast event threads.
+ * <p>
+ * Events are published one by one in the order they were queued, at most one task draining the queue is
+ * submitted to the executor at a time. If the executor rejects the task, the queue is drained by the publishing
+ * thread instead, so that no event is left behind.
+ * <p>
+ * Dropped events are counted by the given listener, a warning is logged only once per overflow, that is until
+ * an event is queued again.
+ *
+ * @since 4.1.0
+ */
+final class AsyncSessionEventPublisher implements ApplicationEventPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSessionEventPublisher.class);
+
+    private final ApplicationEventPublisher delegate;
+
+    private final Executor executor;
+
+    private final BlockingQueue<Object> queue;
+
+    private final EventOverflowPolicy overflowPolicy;
+
+    private final Runnable droppedEventListener;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicBoolean overflowing = new AtomicBoolean();
+
+    private final AtomicBoolean rejecting = new AtomicBoolean();
+
+    AsyncSessionEventPublisher(@NonNull ApplicationEventPublisher delegate, @NonNull Executor executor, int capacity,
+                               @NonNull EventOverflowPolicy overflowPolicy, @NonNull Runnable droppedEventListener) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.droppedEventListener = droppedEventListener;
+    }
+
+    @Override
+    public void publishEvent(@NonNull Object event) {
+        if (!enqueue(event)) {
+            if (this.overflowing.compareAndSet(false, true)) {
+                LOGGER.warn("Session event queue is full, dropping events until there is space again");
+            } else {
+                LOGGER.debug("Session event queue is full, dropping {}", event);
+            }
+            this.droppedEventListener.run();
+            return;
+        }
+        if (this.overflowing.get() && this.overflowing.compareAndSet(true, false)) {
+            LOGGER.info("Session event queue has space again");
+        }
+        scheduleDrain();
+    }
+
+    private boolean enqueue(Object event) {
+        if (this.overflowPolicy == EventOverflowPolicy.DROP) {
+            return this.queue.offer(event);
+        }
+        try {
+            this.queue.put(event);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void scheduleDrain() {
+        if (this.draining.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                if (this.rejecting.compareAndSet(false, true)) {
+                    LOGGER.warn("Session event publishing task rejected, publishing events on the calling thread", e);
+                }
+                // the flag is still held, nothing else would drain the queue
+                drain();
+                return;
+            }
+            if (this.rejecting.get()) {
+                this.rejecting.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            Object event;
+            while ((event = this.queue.poll()) != null) {
+                try {
+                    this.delegate.publishEvent(event);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Publishing of {} failed", event, e);
+                }
+            }
+            this.draining.set(false);
+            // event queued after the last poll, but before the flag was cleared, would be left behind otherwise
+        } while (!this.queue.isEmpty() && this.draining.compareAndSet(false, true));
+    }
+
+    int queueSize() {
+        return this.queue.size();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.util.zip.Deflater;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Codec applied to serialized session attributes before they are stored, typically a compression.
+ * <p>
+ * Every encoded attribute is stored together with the {@link #id() id} of its codec, so that attributes encoded
+ * by different codecs, or not encoded at all, can coexist in the same session. An attribute can be decoded only by
+ * a repository which knows its codec: the built-in {@link #DEFLATE} codec is always known, custom codecs are known
+ * once they are {@link HazelcastIndexedSessionRepository#setAttributeCodec set} on any repository in the JVM.
+ * Members of the cluster never decode attributes.
+ *
+ * @since 4.1.0
+ * @see HazelcastIndexedSessionRepository#setAttributeCodec(AttributeCodec, int)
+ */
+public interface AttributeCodec {
+
+    /**
+     * Codec compressing attributes using {@link Deflater} with {@link Deflater#BEST_SPEED best speed} level.
+     */
+    AttributeCodec DEFLATE = new AttributeCodecs.DeflateCodec();
+
+    /**
+     * Identifier of the codec stored with each encoded attribute. Must be positive, {@code 0} marks attributes which
+     * are not encoded, and unique among codecs used with the same session map. Ids up to 15 are reserved for
+     * built-in codecs.
+     */
+    byte id();
+
+    /**
+     * Encodes serialized attribute.
+     * @param bytes serialized attribute
+     * @return encoded attribute, if it's not shorter than the input, the attribute is stored unencoded
+     */
+    byte @NonNull [] encode(byte @NonNull [] bytes);
+
+    /**
+     * Decodes attribute encoded by {@link #encode}.
+     */
+    byte @NonNull [] decode(byte @NonNull [] bytes);
+}
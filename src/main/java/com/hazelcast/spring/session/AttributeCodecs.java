@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Registry of {@link AttributeCodec codecs} known in this JVM.
+ *
+ * @since 4.1.0
+ */
+final class AttributeCodecs {
+
+    /**
+     * Highest id reserved for built-in codecs.
+     */
+    static final byte MAX_RESERVED_ID = 15;
+
+    private static final Map<Byte, AttributeCodec> BUILT_IN = Map.of(AttributeCodec.DEFLATE.id(), AttributeCodec.DEFLATE);
+
+    private static final Map<Byte, AttributeCodec> CODECS = new ConcurrentHashMap<>(BUILT_IN);
+
+    private AttributeCodecs() {
+    }
+
+    /**
+     * Makes the codec known for decoding, rejecting custom codecs with reserved ids and codecs with ids of other
+     * registered codecs.
+     */
+    static void register(@NonNull AttributeCodec codec) {
+        Assert.notNull(codec, "codec must not be null");
+        Assert.isTrue(codec.id() > 0, "codec id must be positive");
+        Assert.isTrue(codec.id() > MAX_RESERVED_ID || BUILT_IN.get(codec.id()) == codec,
+                      () -> "codec ids up to " + MAX_RESERVED_ID + " are reserved for built-in codecs: " + codec);
+        AttributeCodec existing = CODECS.putIfAbsent(codec.id(), codec);
+        Assert.isTrue(existing == null || existing.equals(codec),
+                      () -> "Another codec with id " + codec.id() + " is already registered: " + existing);
+    }
+
+    @NonNull
+    static AttributeCodec get(byte id) {
+        AttributeCodec codec = CODECS.get(id);
+        if (codec == null) {
+            throw new IllegalStateException("Unknown attribute codec with id " + id
+                    + ", it must be set on a repository to decode attributes it encoded");
+        }
+        return codec;
+    }
+
+    /**
+     * {@link AttributeCodec#DEFLATE} implementation.
+     */
+    static final class DeflateCodec implements AttributeCodec {
+
+        private static final int BUFFER_SIZE = 4096;
+
+        private DeflateCodec() {
+        }
+
+        @Override
+        public byte id() {
+            return 1;
+        }
+
+        @Override
+        public byte @NonNull [] encode(byte @NonNull [] bytes) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(bytes);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+                byte[] buffer = new byte[Math.min(BUFFER_SIZE, bytes.length + 16)];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte @NonNull [] decode(byte @NonNull [] bytes) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(bytes);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 2);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                while (!inflater.finished()) {
+                    int count = inflater.inflate(buffer);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalStateException("Truncated deflate attribute");
+                    }
+                    out.write(buffer, 0, count);
+                }
+                return out.toByteArray();
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupted deflate attribute", e);
+            } finally {
+                inflater.end();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "AttributeCodec.DEFLATE";
+        }
+    }
+}
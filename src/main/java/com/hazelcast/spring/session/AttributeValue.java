@@ -37,34 +37,65 @@ import java.util.Objects;
  * {@link Data} and kept in {@code AttributeValue} as a {@link Data#toByteArray() byte array representation}.
  * <p>
  * For faster reads we are caching the deserialized object representation in the memory.
+ * <p>
+ * The {@link Data} instance is kept as well, its {@link HeapData#toByteArray() byte array} is the very same array
+ * as {@link #objectBytes()}, so no payload is copied when switching between both representations.
+ * <p>
+ * Serialized form may be encoded by an {@link AttributeCodec}, e.g. compressed, in which case {@link #objectBytes()}
+ * holds the encoded bytes and {@link #codecId()} the id of the codec.
  *
  * @since 4.0.0
  */
 public final class AttributeValue {
+    static final byte NO_CODEC = 0;
+
     private transient Object object;
     private byte[] objectBytes;
+    /**
+     * Id of {@link AttributeCodec} which encoded {@link #objectBytes}, {@code 0} if they are not encoded.
+     */
+    private byte codecId;
+    private transient Data data;
 
     private AttributeValue() {
     }
 
     static AttributeValue serialized(byte[] value) {
+        return serialized(value, NO_CODEC);
+    }
+
+    static AttributeValue serialized(byte[] value, byte codecId) {
         if (value == null) {
             return null;
         }
         AttributeValue attributeValue = new AttributeValue();
         attributeValue.objectBytes = value;
+        attributeValue.codecId = codecId;
         return attributeValue;
     }
 
     static GenericRecord serializedGenericRecord(byte[] value) {
+        return serializedGenericRecord(value, NO_CODEC);
+    }
+
+    static GenericRecord serializedGenericRecord(byte[] value, byte codecId) {
         if (value == null) {
             return null;
         }
         var builder = GenericRecordBuilder.compact("AttributeValue");
-        builder.setArrayOfInt8("objectBytes", value);
+        builder.setArrayOfInt8(AttributeValueCompactSerializer.OBJECT_BYTES_FIELD, value);
+        builder.setInt8(AttributeValueCompactSerializer.CODEC_FIELD, codecId);
         return builder.build();
     }
 
+    /**
+     * Returns a copy sharing only the serialized form of this value.
+     */
+    @NonNull
+    AttributeValue serializedCopy() {
+        return serialized(objectBytes, codecId);
+    }
+
     @Nullable
     static AttributeValue deserialized(@Nullable Object value) {
         if (value == null) {
@@ -77,7 +108,7 @@ public final class AttributeValue {
 
     void deserialize(@NonNull SerializationService serializationService) {
         if (object == null) {
-            object = serializationService.toObject(new HeapData(objectBytes));
+            object = serializationService.toObject(data());
         }
     }
 
@@ -88,19 +119,78 @@ public final class AttributeValue {
     public <T> T deserialize(@NonNull HazelcastInstance hazelcastInstance, Class<T> clazz) {
         if (object == null) {
             var serializationService = ((SerializationServiceSupport) hazelcastInstance).getSerializationService();
-            object = serializationService.toObject(new HeapData(objectBytes));
+            object = serializationService.toObject(data());
         }
         return clazz.cast(object);
     }
 
     @NonNull
     AttributeValue serialize(@NonNull SerializationService serializationService) {
+        return serialize(serializationService, null, 0);
+    }
+
+    /**
+     * Serializes the object if not yet serialized, encoding it by given codec if the serialized form is at least
+     * {@code threshold} bytes long.
+     */
+    @NonNull
+    AttributeValue serialize(@NonNull SerializationService serializationService, @Nullable AttributeCodec codec,
+                             int threshold) {
         if (objectBytes == null) {
-            objectBytes = serializationService.toData(object).toByteArray();
+            setSerializedForm(serializationService.toData(object), codec, threshold);
         }
         return this;
     }
 
+    /**
+     * Serializes the deserialized object again, as it might have been modified since it was read, and replaces
+     * the serialized form if it differs.
+     *
+     * @return {@code true} if the serialized form changed
+     */
+    boolean reserialize(@NonNull SerializationService serializationService, @Nullable AttributeCodec codec,
+                        int threshold) {
+        assertDeserialized();
+        Data fresh = serializationService.toData(object);
+        if (objectBytes != null && Arrays.equals(data().toByteArray(), fresh.toByteArray())) {
+            return false;
+        }
+        setSerializedForm(fresh, codec, threshold);
+        return true;
+    }
+
+    private void setSerializedForm(Data serialized, @Nullable AttributeCodec codec, int threshold) {
+        // HeapData does not copy its payload, the array is shared with the Data instance
+        data = serialized;
+        objectBytes = serialized.toByteArray();
+        codecId = NO_CODEC;
+        if (codec != null && objectBytes.length >= threshold) {
+            byte[] encoded = codec.encode(objectBytes);
+            if (encoded.length < objectBytes.length) {
+                objectBytes = encoded;
+                codecId = codec.id();
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if this value was read from the map and was not deserialized since.
+     */
+    boolean isSerializedOnly() {
+        return object == null;
+    }
+
+    /**
+     * Returns serialized form as {@link Data}, wrapping {@link #objectBytes()} without copying them.
+     */
+    @NonNull
+    private Data data() {
+        if (data == null) {
+            data = new HeapData(codecId == NO_CODEC ? objectBytes : AttributeCodecs.get(codecId).decode(objectBytes));
+        }
+        return data;
+    }
+
     @Nullable
     static AttributeValue string(Object value) {
         return deserialized(value);
@@ -120,6 +210,15 @@ public final class AttributeValue {
         return objectBytes;
     }
 
+    /**
+     * Returns id of the {@link AttributeCodec} which encoded {@link #objectBytes()}, {@code 0} if they are not encoded.
+     *
+     * @since 4.1.0
+     */
+    public byte codecId() {
+        return codecId;
+    }
+
     @Override
     public String toString() {
         return "AttributeValue["
@@ -133,12 +232,16 @@ public final class AttributeValue {
         if (!(o instanceof AttributeValue that)) {
             return false;
         }
+        if (object == null && that.object == null) {
+            // neither is deserialized, e.g. both were read from the map
+            return codecId == that.codecId && Arrays.equals(objectBytes, that.objectBytes);
+        }
         return Objects.equals(object, that.object);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(object);
+        return (object == null) ? Arrays.hashCode(objectBytes) : object.hashCode();
     }
 
     public void assertDeserialized() {
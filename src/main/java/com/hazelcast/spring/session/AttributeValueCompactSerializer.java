@@ -16,6 +16,7 @@
 
 package com.hazelcast.spring.session;
 
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.compact.CompactReader;
 import com.hazelcast.nio.serialization.compact.CompactSerializer;
 import com.hazelcast.nio.serialization.compact.CompactWriter;
@@ -56,21 +57,30 @@ public final class AttributeValueCompactSerializer implements CompactSerializer<
 
     public static final AttributeValueCompactSerializer INSTANCE = new AttributeValueCompactSerializer();
 
+    static final String OBJECT_BYTES_FIELD = "objectBytes";
+
+    static final String CODEC_FIELD = "codec";
+
     private AttributeValueCompactSerializer() {
     }
 
     @Override
     @NonNull
     public AttributeValue read(CompactReader reader) {
-        byte[] value = reader.readArrayOfInt8("objectBytes");
-        AttributeValue serialized = AttributeValue.serialized(value);
+        byte[] value = reader.readArrayOfInt8(OBJECT_BYTES_FIELD);
+        // values written by versions before 4.1 are never encoded and do not have the field
+        byte codecId = reader.getFieldKind(CODEC_FIELD) == FieldKind.INT8
+                ? reader.readInt8(CODEC_FIELD)
+                : AttributeValue.NO_CODEC;
+        AttributeValue serialized = AttributeValue.serialized(value, codecId);
         assert serialized != null;
         return serialized;
     }
 
     @Override
     public void write(@NonNull CompactWriter writer, @NonNull AttributeValue object) {
-        writer.writeArrayOfInt8("objectBytes", object.objectBytes());
+        writer.writeArrayOfInt8(OBJECT_BYTES_FIELD, object.objectBytes());
+        writer.writeInt8(CODEC_FIELD, object.codecId());
     }
 
     @Override
@@ -25,8 +25,9 @@ import org.springframework.session.UuidSessionIdGenerator;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -61,7 +62,24 @@ public class BackingMapSession {
 
     private final String originalId;
 
-    private final Map<String, AttributeValue> sessionAttrs = new HashMap<>();
+    /**
+     * Attributes of the session, {@code null} until first needed for sessions read from the map, see
+     * {@link #setSerializedAttributes}. Kept in the order they were read, so that an unmodified session is
+     * serialized back into the same bytes, which {@link com.hazelcast.map.IMap#replace(Object, Object, Object)}
+     * compares.
+     */
+    @Nullable
+    private Map<String, AttributeValue> sessionAttrs = new LinkedHashMap<>();
+
+    /**
+     * Names of attributes of a session read from the map, not yet indexed in {@link #sessionAttrs}.
+     */
+    private String @Nullable [] readAttributeNames;
+
+    /**
+     * Values of attributes of a session read from the map, in the order of {@link #readAttributeNames}.
+     */
+    private AttributeValue @Nullable [] readAttributeValues;
 
     private Instant creationTime = Instant.now();
 
@@ -74,6 +92,18 @@ public class BackingMapSession {
      */
     private Duration maxInactiveInterval = DEFAULT_MAX_INACTIVE_INTERVAL;
 
+    /**
+     * Version of sessions stored before 4.1 without the version field. Such sessions cannot be validated, so they
+     * are never cached locally, and they stay unversioned until they expire, since members without the compact
+     * serializer cannot add the field to the stored record.
+     */
+    static final long UNVERSIONED = -1;
+
+    /**
+     * Incremented on every update of the stored session, used to validate locally cached copies.
+     */
+    private long version;
+
     private transient SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
 
     /**
@@ -161,12 +191,23 @@ public class BackingMapSession {
         if (PRINCIPAL_NAME_ATTRIBUTES.contains(attributeName)) {
             return principalName == null ? null : AttributeValue.deserialized(principalName);
         }
+        if (this.sessionAttrs == null) {
+            // typical request reads only a few attributes, finding them is cheaper than indexing all of them
+            for (int i = 0; i < this.readAttributeNames.length; i++) {
+                if (this.readAttributeNames[i].equals(attributeName)) {
+                    return this.readAttributeValues[i];
+                }
+            }
+            return null;
+        }
         return this.sessionAttrs.get(attributeName);
     }
 
     @NonNull
     public Set<String> getAttributeNames() {
-        HashSet<String> keys = new HashSet<>(this.sessionAttrs.keySet());
+        HashSet<String> keys = (this.sessionAttrs == null)
+                ? new HashSet<>(Arrays.asList(this.readAttributeNames))
+                : new HashSet<>(this.sessionAttrs.keySet());
         if (principalName != null) {
             keys.add(PRINCIPAL_NAME_ATTRIBUTE);
             keys.add(PRINCIPAL_NAME_INDEX_NAME);
@@ -175,7 +216,7 @@ public class BackingMapSession {
     }
     @NonNull
     Set<String> getAttributeNameWithoutPrincipal() {
-        return sessionAttrs.keySet();
+        return attributes().keySet();
     }
 
     public void setAttribute(@NonNull String attributeName, @Nullable AttributeValue attributeValue) {
@@ -185,7 +226,7 @@ public class BackingMapSession {
             attributeValue.assertDeserialized();
             setPrincipalName((String) attributeValue.object());
         } else {
-            this.sessionAttrs.put(attributeName, attributeValue);
+            attributes().put(attributeName, attributeValue);
         }
     }
 
@@ -193,14 +234,14 @@ public class BackingMapSession {
         if (attributeValue == null) {
             removeAttribute(attributeName);
         } else if (!PRINCIPAL_NAME_ATTRIBUTES.contains(attributeName)) {
-            this.sessionAttrs.put(attributeName, attributeValue);
+            attributes().put(attributeName, attributeValue);
         } else {
             throw new UnsupportedOperationException("Setting serialized form of principal name is not supported");
         }
     }
 
     public void removeAttribute(@NonNull String attributeName) {
-        this.sessionAttrs.remove(attributeName);
+        attributes().remove(attributeName);
         if (attributeName.equals(PRINCIPAL_NAME_ATTRIBUTE) || attributeName.equals(PRINCIPAL_NAME_INDEX_NAME)) {
             setPrincipalName(null);
         }
@@ -225,6 +266,106 @@ public class BackingMapSession {
         this.id = id;
     }
 
+    long getVersion() {
+        return this.version;
+    }
+
+    void setVersion(long version) {
+        this.version = version;
+    }
+
+    void incrementVersion() {
+        if (this.version != UNVERSIONED) {
+            this.version++;
+        }
+    }
+
+    /**
+     * Creates a copy of this session that shares only the {@link AttributeValue#objectBytes() serialized form}
+     * of the attributes, so changes done to deserialized attribute values are not visible in the copy.
+     * <p>
+     * Requires all attributes to be in serialized form, see {@link #prepareAttributesSerializedForm}.
+     */
+    @NonNull
+    BackingMapSession serializedCopy() {
+        BackingMapSession copy = new BackingMapSession(this.originalId);
+        copy.id = this.id;
+        copy.creationTime = this.creationTime;
+        copy.lastAccessedTime = this.lastAccessedTime;
+        copy.maxInactiveInterval = this.maxInactiveInterval;
+        copy.principalName = this.principalName;
+        copy.version = this.version;
+        if (this.sessionAttrs == null) {
+            // copy stays lazy as well, this session can be shared by multiple threads, so it must not be modified
+            AttributeValue[] values = new AttributeValue[this.readAttributeValues.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = this.readAttributeValues[i].serializedCopy();
+            }
+            copy.setSerializedAttributes(this.readAttributeNames, values);
+        } else {
+            this.sessionAttrs.forEach((name, value) -> copy.sessionAttrs.put(name, value.serializedCopy()));
+        }
+        return copy;
+    }
+
+    /**
+     * Sets all attributes of a session read from the map. Attributes are indexed by name only when the session is
+     * modified or iterated, until then they are looked up in the given arrays, which must not be modified afterwards.
+     */
+    void setSerializedAttributes(String @NonNull [] attributeNames, AttributeValue @NonNull [] attributeValues) {
+        this.sessionAttrs = null;
+        this.readAttributeNames = attributeNames;
+        this.readAttributeValues = attributeValues;
+    }
+
+    @NonNull
+    private Map<String, AttributeValue> attributes() {
+        if (this.sessionAttrs == null) {
+            this.sessionAttrs = attributesView();
+            this.readAttributeNames = null;
+            this.readAttributeValues = null;
+        }
+        return this.sessionAttrs;
+    }
+
+    /**
+     * Compares attributes without indexing those of sessions read from the map, which {@link #attributes()} would
+     * keep for the rest of the life of the session.
+     */
+    private boolean attributesEqual(BackingMapSession that) {
+        if (this.sessionAttrs == null && that.sessionAttrs == null
+                && Arrays.equals(this.readAttributeNames, that.readAttributeNames)) {
+            return Arrays.equals(this.readAttributeValues, that.readAttributeValues);
+        }
+        return attributesView().equals(that.attributesView());
+    }
+
+    /**
+     * Same as {@code attributes().hashCode()}, without indexing attributes of sessions read from the map.
+     */
+    private int attributesHashCode() {
+        if (this.sessionAttrs != null) {
+            return this.sessionAttrs.hashCode();
+        }
+        int hashCode = 0;
+        for (int i = 0; i < this.readAttributeNames.length; i++) {
+            hashCode += this.readAttributeNames[i].hashCode() ^ Objects.hashCode(this.readAttributeValues[i]);
+        }
+        return hashCode;
+    }
+
+    private Map<String, AttributeValue> attributesView() {
+        if (this.sessionAttrs != null) {
+            return this.sessionAttrs;
+        }
+        Map<String, AttributeValue> attributes =
+                new LinkedHashMap<>((int) Math.ceil(this.readAttributeNames.length / 0.75));
+        for (int i = 0; i < this.readAttributeNames.length; i++) {
+            attributes.put(this.readAttributeNames[i], this.readAttributeValues[i]);
+        }
+        return attributes;
+    }
+
     private static String generateId() {
         return UUID.randomUUID().toString();
     }
@@ -236,23 +377,48 @@ public class BackingMapSession {
         }
         return Objects.equals(id, that.id)
                 && Objects.equals(originalId, that.originalId)
-                && Objects.equals(sessionAttrs, that.sessionAttrs)
+                && attributesEqual(that)
                 && Objects.equals(creationTime,  that.creationTime)
                 && Objects.equals(lastAccessedTime, that.lastAccessedTime)
                 && Objects.equals(principalName, that.principalName)
                 && Objects.equals(maxInactiveInterval, that.maxInactiveInterval)
+                && version == that.version
                 && Objects.equals(sessionIdGenerator, that.sessionIdGenerator);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, originalId, sessionAttrs, creationTime, lastAccessedTime, principalName, maxInactiveInterval,
-                            sessionIdGenerator);
+        return Objects.hash(id, originalId, attributesHashCode(), creationTime, lastAccessedTime, principalName, maxInactiveInterval,
+                            version, sessionIdGenerator);
+    }
+
+    /**
+     * Returns total size of serialized attributes, requires all attributes to be in serialized form.
+     */
+    long serializedAttributesSize() {
+        long size = 0;
+        for (AttributeValue value : attributeValues()) {
+            byte[] bytes = value.objectBytes();
+            size += (bytes == null) ? 0 : bytes.length;
+        }
+        return size;
     }
 
     public void prepareAttributesSerializedForm(SerializationService serializationService) {
-        for (AttributeValue value : sessionAttrs.values()) {
-            value.serialize(serializationService);
+        prepareAttributesSerializedForm(serializationService, null, 0);
+    }
+
+    /**
+     * Serializes all attributes, encoding those at least {@code threshold} bytes long by given codec.
+     */
+    void prepareAttributesSerializedForm(SerializationService serializationService, @Nullable AttributeCodec codec,
+                                         int threshold) {
+        for (AttributeValue value : attributeValues()) {
+            value.serialize(serializationService, codec, threshold);
         }
     }
+
+    private Iterable<AttributeValue> attributeValues() {
+        return (this.sessionAttrs == null) ? Arrays.asList(this.readAttributeValues) : this.sessionAttrs.values();
+    }
 }
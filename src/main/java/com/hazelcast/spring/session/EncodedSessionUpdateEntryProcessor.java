@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spring.session.serialization.HzSSSerializerHook;
+
+import java.io.IOException;
+
+/**
+ * {@link SessionUpdateEntryProcessor} which also carries {@link #deltaCodecs codec ids} of encoded attributes.
+ * <p>
+ * It has its own class id, so that the wire format of {@link SessionUpdateEntryProcessor} stays readable by members
+ * running older versions of this library during a rolling upgrade. It is sent only if some changed attribute is
+ * encoded, see {@link HazelcastIndexedSessionRepository#setAttributeCodec}; members which do not know it fail to
+ * deserialize it and the update falls back to the path used when this library is not deployed on all members.
+ *
+ * @since 4.1.0
+ */
+public class EncodedSessionUpdateEntryProcessor extends SessionUpdateEntryProcessor {
+
+    public EncodedSessionUpdateEntryProcessor() {
+    }
+
+    EncodedSessionUpdateEntryProcessor(AbstractHazelcastSession session) {
+        super(session);
+    }
+
+    @Override
+    public int getClassId() {
+        return HzSSSerializerHook.ENCODED_SESSION_UPDATE_ENTRY_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeObject(deltaCodecs);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        deltaCodecs = in.readObject();
+    }
+}
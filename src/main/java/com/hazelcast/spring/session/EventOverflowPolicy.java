@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+/**
+ * What to do with a session event published asynchronously when the queue of pending events is full.
+ *
+ * @since 4.1.0
+ * @see HazelcastIndexedSessionRepository#setAsyncEventPublishing
+ */
+public enum EventOverflowPolicy {
+
+    /**
+     * The event is dropped and counted, Hazelcast event thread is never blocked.
+     */
+    DROP,
+
+    /**
+     * Hazelcast event thread waits until there is space in the queue, so no event is lost, but slow listeners
+     * delay delivery of other events of the same member or client.
+     */
+    BLOCK
+}
@@ -18,13 +18,33 @@ package com.hazelcast.spring.session;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.InvalidConfigurationException;
@@ -32,14 +52,22 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.IMap;
 import com.hazelcast.map.listener.EntryAddedListener;
 import com.hazelcast.map.listener.EntryEvictedListener;
 import com.hazelcast.map.listener.EntryExpiredListener;
 import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.MapListener;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
 import com.hazelcast.spi.impl.SerializationServiceSupport;
+import com.hazelcast.spring.session.SessionRepositoryMetricsRecorder.FindResult;
+import com.hazelcast.spring.session.SessionRepositoryMetricsRecorder.SaveOperation;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
@@ -47,6 +75,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.session.DelegatingIndexResolver;
 import org.springframework.session.FindByIndexNameSessionRepository;
@@ -64,7 +93,6 @@ import org.springframework.session.events.SessionExpiredEvent;
 import org.springframework.util.Assert;
 
 import static com.hazelcast.config.IndexType.HASH;
-import static com.hazelcast.spring.session.BackingMapSession.PRINCIPAL_NAME_ATTRIBUTES;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -139,13 +167,37 @@ public class HazelcastIndexedSessionRepository
 	 */
 	public static final String PRINCIPAL_NAME_ATTRIBUTE = "principalName";
 
-	private static final String SPRING_SECURITY_CONTEXT = "SPRING_SECURITY_CONTEXT";
+    private static final Projection<Map.Entry<String, BackingMapSession>, Object[]> SUMMARY_PROJECTION =
+            Projections.multiAttribute("id",
+                    HazelcastSessionCompactSerializer.CREATION_TIME_FIELD,
+                    HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD,
+                    HazelcastSessionCompactSerializer.MAX_INACTIVE_INTERVAL_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_CREATION_TIME_SECONDS_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_CREATION_TIME_NANOS_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_SECONDS_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_NANOS_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_MAX_INACTIVE_INTERVAL_SECONDS_FIELD,
+                    HazelcastSessionCompactSerializer.LEGACY_MAX_INACTIVE_INTERVAL_NANOS_FIELD);
+
+	/**
+	 * The default maximum number of pending asynchronous writes.
+	 */
+	public static final int DEFAULT_MAX_IN_FLIGHT_WRITES = 1024;
 
 	private final HazelcastInstance hazelcastInstance;
 
 	private ApplicationEventPublisher eventPublisher = (event) -> {
 	};
 
+    @Nullable
+    private AsyncSessionEventPublisher asyncEventPublisher;
+
+    private boolean includeValuesInEvents = true;
+
+    private boolean localEventsOnly;
+
+    private Set<SessionEventType> sessionEventTypes = EnumSet.allOf(SessionEventType.class);
+
 	private Duration defaultMaxInactiveInterval = BackingMapSession.DEFAULT_MAX_INACTIVE_INTERVAL;
 
 	private IndexResolver<Session> indexResolver = new DelegatingIndexResolver<>(new PrincipalNameIndexResolver<>());
@@ -156,6 +208,8 @@ public class HazelcastIndexedSessionRepository
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+    private Duration touchGranularity = Duration.ZERO;
+
     /**
      * If false, the {@link #save(HazelcastSession)} will fall back to simple algorithm:
      * <ol>
@@ -179,7 +233,7 @@ public class HazelcastIndexedSessionRepository
 
 	private IMap<String, BackingMapSession> sessions;
 
-	private UUID sessionListenerId;
+	private final List<UUID> sessionListenerIds = new ArrayList<>();
 
     private SerializationService serializationService;
 
@@ -192,6 +246,52 @@ public class HazelcastIndexedSessionRepository
     private SessionMapCustomizer sessionMapConfigCustomizer = SessionMapCustomizer.noop();
     private boolean sessionMapAutoconfigurationEnabled = true;
 
+    private boolean asyncSave;
+
+    private volatile Semaphore inFlightWrites = new Semaphore(DEFAULT_MAX_IN_FLIGHT_WRITES);
+
+    /**
+     * Set by the first asynchronous write, the write limit cannot be changed afterwards.
+     */
+    private volatile boolean writesSubmitted;
+
+    /**
+     * Runs blocking parts of asynchronous saves, such as the lock-based fallback.
+     */
+    private Executor asyncSaveExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Last pending asynchronous write of each session.
+     */
+    private final Map<String, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Sessions recently read or written by this repository, {@code null} if local caching is disabled.
+     */
+    @Nullable
+    private LocalSessionCache localSessionCache;
+
+    /**
+     * Number of optimistic {@link IMap#replace(Object, Object, Object)} attempts done before falling back to locking,
+     * {@code 0} if the lock should be used right away.
+     */
+    private int optimisticUpdateAttempts;
+
+    @Nullable
+    private AttributeCodec attributeCodec;
+
+    private int attributeCodecThreshold;
+
+    private boolean skipUnchangedAttributes;
+
+    /**
+     * Maximum number of sessions of a single principal, {@code 0} if unlimited.
+     */
+    private int maxSessionsPerPrincipal;
+
+    @NonNull
+    private SessionRepositoryMetricsRecorder metricsRecorder = SessionRepositoryMetricsRecorder.NOOP;
+
 	/**
 	 * Create a new {@link HazelcastIndexedSessionRepository} instance.
 	 * @param hazelcastInstance the {@link HazelcastInstance} to use for managing sessions
@@ -207,14 +307,20 @@ public class HazelcastIndexedSessionRepository
 	}
 
     private void configureSessionMap(@NonNull HazelcastInstance hazelcastInstance) {
-        var customizer = sessionMapConfigCustomizer;
         if (!sessionMapAutoconfigurationEnabled) {
             LOGGER.debug("Not configuring session map {} per configuration", sessionMapName);
             return;
-        } else {
-			requireNonNull(sessionMapConfigCustomizer, "sessionMapConfigCustomizer must not be null when session map "
-					+ "autoconfiguration is enabled");
-		}
+        }
+        configureSessionMap(hazelcastInstance, sessionMapName, sessionMapConfigCustomizer);
+    }
+
+    /**
+     * Submits configuration of session map with principal name index, customized by given customizer.
+     */
+    static void configureSessionMap(@NonNull HazelcastInstance hazelcastInstance, @NonNull String sessionMapName,
+                                    SessionMapCustomizer customizer) {
+        requireNonNull(customizer, "sessionMapConfigCustomizer must not be null when session map "
+                + "autoconfiguration is enabled");
 
 		var mapConfig = new MapConfig(sessionMapName);
 		mapConfig.getIndexConfigs().add(new IndexConfig(HASH, PRINCIPAL_NAME_ATTRIBUTE));
@@ -233,12 +339,64 @@ public class HazelcastIndexedSessionRepository
 	public void afterPropertiesSet() {
 		configureSessionMap(this.hazelcastInstance);
 		this.sessions = this.hazelcastInstance.getMap(this.sessionMapName);
-		this.sessionListenerId = this.sessions.addEntryListener(this, true);
+        for (MapListener listener : sessionMapListeners()) {
+            this.sessionListenerIds.add(addSessionMapListener(listener));
+        }
 	}
 
+    /**
+     * Returns listeners of the session map, members send events only of the types the listeners implement
+     * listener interfaces for.
+     */
+    private List<MapListener> sessionMapListeners() {
+        if (this.sessionEventTypes.size() == SessionEventType.values().length) {
+            return List.of(this);
+        }
+        List<MapListener> listeners = new ArrayList<>(this.sessionEventTypes.size());
+        if (this.sessionEventTypes.contains(SessionEventType.CREATED)) {
+            listeners.add((EntryAddedListener<String, BackingMapSession>) this::entryAdded);
+        }
+        if (this.sessionEventTypes.contains(SessionEventType.DELETED)) {
+            listeners.add((EntryRemovedListener<String, BackingMapSession>) this::entryRemoved);
+        }
+        if (this.sessionEventTypes.contains(SessionEventType.EXPIRED)) {
+            listeners.add(new ExpirationListener());
+        }
+        return listeners;
+    }
+
+    private UUID addSessionMapListener(MapListener listener) {
+        if (!this.localEventsOnly) {
+            return this.sessions.addEntryListener(listener, this.includeValuesInEvents);
+        }
+        try {
+            return this.sessions.addLocalEntryListener(listener, Predicates.alwaysTrue(), this.includeValuesInEvents);
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("Local events are supported only if the repository uses a member, "
+                                                    + "not a client", e);
+        }
+    }
+
+    private final class ExpirationListener implements EntryExpiredListener<String, BackingMapSession>,
+            EntryEvictedListener<String, BackingMapSession> {
+
+        @Override
+        public void entryExpired(EntryEvent<String, BackingMapSession> event) {
+            HazelcastIndexedSessionRepository.this.entryExpired(event);
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<String, BackingMapSession> event) {
+            HazelcastIndexedSessionRepository.this.entryEvicted(event);
+        }
+    }
+
 	@Override
 	public void destroy() {
-		this.sessions.removeEntryListener(this.sessionListenerId);
+        for (String sessionId : this.pendingWrites.keySet()) {
+            awaitPendingWrite(sessionId);
+        }
+        this.sessionListenerIds.forEach(this.sessions::removeEntryListener);
 	}
 
     /**
@@ -290,6 +448,11 @@ public class HazelcastIndexedSessionRepository
 		return this;
 	}
 
+    @NonNull
+    String getSessionMapName() {
+        return this.sessionMapName;
+    }
+
 	/**
 	 * Sets the Hazelcast flush mode. Default flush mode is {@link FlushMode#ON_SAVE}.
 	 * @param flushMode the new Hazelcast flush mode
@@ -312,6 +475,30 @@ public class HazelcastIndexedSessionRepository
 		return this;
 	}
 
+    /**
+     * Sets the granularity of {@link Session#getLastAccessedTime() last accessed time} updates. If the only change
+     * made to the session is an update of its last accessed time and the new time is less than
+     * {@code touchGranularity} after the stored one, {@link #save(HazelcastSession)} will not send anything to the
+     * cluster.
+     * <p>
+     * Note that sessions can then expire up to {@code touchGranularity} earlier than configured by their
+     * {@link Session#getMaxInactiveInterval() max inactive interval}, so the value should be a small fraction of it.
+     * The default is {@link Duration#ZERO}, which means that every update is written.
+     *
+     * @param touchGranularity the minimal difference between stored and new last accessed time for which
+     *                         touch-only update is written
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setTouchGranularity(@NonNull Duration touchGranularity) {
+        Assert.notNull(touchGranularity, "touchGranularity must not be null");
+        Assert.isTrue(!touchGranularity.isNegative(), "touchGranularity must not be negative");
+        this.touchGranularity = touchGranularity;
+        return this;
+    }
+
     /**
      * If true, this repository will assume that class instances are present on all members, and we can use faster
      * {@link com.hazelcast.map.EntryProcessor} to process sessions in-place, instead of a combination of
@@ -325,6 +512,31 @@ public class HazelcastIndexedSessionRepository
 		return this;
     }
 
+    /**
+     * Enables optimistic updates of sessions when this library is not {@link #setDeployedOnAllMembers deployed on
+     * all members}. Instead of {@link IMap#lock locking} the session for the duration of {@link IMap#get} and
+     * {@link IMap#set}, the session is read, updated locally and written with
+     * {@link IMap#replace(Object, Object, Object)}, which succeeds only if nobody else modified the session in
+     * the meantime. This avoids two of the four round trips and lock convoys when parallel requests update the
+     * same session.
+     * <p>
+     * If the session was modified concurrently, the update is retried, at most {@code maxAttempts} times in total,
+     * after which the lock is used. Sessions stored before 4.1 are always updated under the lock, since they are
+     * written back in the current layout, which would never match the stored one. By default, optimistic updates
+     * are disabled.
+     *
+     * @param maxAttempts maximum number of optimistic update attempts, {@code 0} disables optimistic updates
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setOptimisticUpdateAttempts(int maxAttempts) {
+        Assert.isTrue(maxAttempts >= 0, "maxAttempts must not be negative");
+        this.optimisticUpdateAttempts = maxAttempts;
+        return this;
+    }
+
 	/**
      * Allows customization of {@link IMap} storing session information.
      *
@@ -353,6 +565,267 @@ public class HazelcastIndexedSessionRepository
         return this;
     }
 
+    /**
+     * If true, {@link #save(HazelcastSession)} will not wait for the session to be stored, but will delegate to
+     * {@link #saveAsync(HazelcastSession)} instead. Failures are then only logged. The default is false.
+     *
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setAsyncSave(boolean asyncSave) {
+        this.asyncSave = asyncSave;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of pending asynchronous writes, see {@link #saveAsync(HazelcastSession)}.
+     * The default is {@link #DEFAULT_MAX_IN_FLIGHT_WRITES}.
+     *
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setMaxInFlightWrites(int maxInFlightWrites) {
+        Assert.isTrue(maxInFlightWrites > 0, "maxInFlightWrites must be positive");
+        Assert.state(!this.writesSubmitted, "maxInFlightWrites cannot be changed after the first asynchronous write");
+        this.inFlightWrites = new Semaphore(maxInFlightWrites);
+        return this;
+    }
+
+    /**
+     * Sets the executor running blocking parts of {@link #saveAsync(HazelcastSession)}, that is the
+     * {@code lock}-{@code get}-{@code set} fallback used if this library is not
+     * {@link #setDeployedOnAllMembers deployed on all members} and the query done when
+     * {@link #setMaxSessionsPerPrincipal maxSessionsPerPrincipal} is enforced. The default is {@link ForkJoinPool#commonPool()},
+     * a dedicated executor should be used if the fallback is expected.
+     *
+     * @param asyncSaveExecutor the executor to use
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setAsyncSaveExecutor(@NonNull Executor asyncSaveExecutor) {
+        Assert.notNull(asyncSaveExecutor, "asyncSaveExecutor must not be null");
+        this.asyncSaveExecutor = asyncSaveExecutor;
+        return this;
+    }
+
+    /**
+     * Enables caching of up to {@code maxSize} sessions recently read or written by this repository in local memory.
+     * <p>
+     * A cached session is never returned from {@link #findById(String)} without validation: its version is compared
+     * with the version of the stored session using a read-only {@link com.hazelcast.map.EntryProcessor}, which
+     * transfers only a single number instead of the whole session. If the session was modified by any other node
+     * in the meantime, it's fetched again. Sessions stored by versions before 4.1 have no version and are never
+     * cached.
+     * <p>
+     * The validation requires this library to be deployed on all members, so the cache is not used if
+     * {@link #setDeployedOnAllMembers deployedOnAllMembers} is false. By default, caching is disabled.
+     *
+     * @param maxSize maximum number of cached sessions, {@code 0} disables caching
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setLocalSessionCacheSize(int maxSize) {
+        Assert.isTrue(maxSize >= 0, "maxSize must not be negative");
+        this.localSessionCache = maxSize == 0 ? null : new LocalSessionCache(maxSize);
+        return this;
+    }
+
+    /**
+     * If true, attributes which were added to the set of changes only because they were read
+     * ({@link SaveMode#ON_GET_ATTRIBUTE}) or because all attributes are saved ({@link SaveMode#ALWAYS}) are not
+     * written if their serialized form did not change. Attributes read during the request are serialized again
+     * on save and compared with the form they were read in, so in-place modifications of mutable attributes are
+     * still saved, without writing all the unmodified ones.
+     * <p>
+     * Note that unmodified attributes then do not overwrite concurrent modifications done by other requests,
+     * which {@link SaveMode#ALWAYS} does otherwise. By default, all such attributes are written.
+     *
+     * @param skipUnchangedAttributes whether to skip writes of attributes with unchanged serialized form
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setSkipUnchangedAttributes(boolean skipUnchangedAttributes) {
+        this.skipUnchangedAttributes = skipUnchangedAttributes;
+        return this;
+    }
+
+    /**
+     * If false, the session map listener is registered without values, so members send only the session id with
+     * each event instead of the whole serialized session, to every node running the repository.
+     * <p>
+     * Sessions in {@link SessionCreatedEvent}s are then loaded from the map only when a listener asks for anything
+     * but their id. Sessions in {@link SessionDeletedEvent}s and {@link SessionExpiredEvent}s are no longer stored,
+     * so they only have the id.
+     * <p>
+     * Sessions stored under a {@link Session#changeSessionId() changed id} cannot be told apart from new ones, so
+     * unlike with values included, a {@link SessionCreatedEvent} is published for each of them, typically on every
+     * login, followed by a {@link SessionDeletedEvent} of the original id. Listeners counting sessions should not be
+     * used with this option. Must be set before {@link #afterPropertiesSet()}. By default, values are included.
+     *
+     * @param includeValuesInEvents whether events of the session map should carry the sessions
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setIncludeValuesInEvents(boolean includeValuesInEvents) {
+        this.includeValuesInEvents = includeValuesInEvents;
+        return this;
+    }
+
+    /**
+     * If true, the session map listener is registered as a {@link IMap#addLocalEntryListener local} one, so each
+     * member receives events only of sessions it owns. Each event is then published once in the whole cluster,
+     * by the member owning the session, instead of once by every member, so the cost of events does not grow
+     * with the size of the cluster.
+     * <p>
+     * Listeners of session events must therefore not expect events of sessions used on the same node. Supported
+     * only if the repository uses a Hazelcast member, embedded in the application, not a client. Must be set before
+     * {@link #afterPropertiesSet()}. By default, every node receives all events.
+     *
+     * @param localEventsOnly whether only events of locally owned sessions should be received
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setLocalEventsOnly(boolean localEventsOnly) {
+        this.localEventsOnly = localEventsOnly;
+        return this;
+    }
+
+    /**
+     * Sets types of session events to publish. The session map listener is registered only for the Hazelcast
+     * events needed to publish them, so members do not send events nobody consumes. For example, applications
+     * interested only in {@link org.springframework.session.events.SessionDestroyedEvent}s do not receive an event
+     * for each created session. Must be set before {@link #afterPropertiesSet()}. By default, all types are
+     * published.
+     *
+     * @param sessionEventTypes types of events to publish, empty to publish none
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setSessionEventTypes(@NonNull Set<SessionEventType> sessionEventTypes) {
+        Assert.notNull(sessionEventTypes, "sessionEventTypes must not be null");
+        Set<SessionEventType> types = EnumSet.noneOf(SessionEventType.class);
+        types.addAll(sessionEventTypes);
+        this.sessionEventTypes = types;
+        return this;
+    }
+
+    /**
+     * Publishes session events asynchronously, using the given executor, instead of on Hazelcast event threads.
+     * Events are queued in a bounded queue and published one by one in the order they were received, so slow
+     * listeners delay other session events, but not the delivery of Hazelcast events. When the queue is full,
+     * the given policy applies. Dropped events and the size of the queue are
+     * {@link HazelcastSessionRepositoryMetrics measured}.
+     * <p>
+     * Any executor can be used, for example {@link java.util.concurrent.Executors#newVirtualThreadPerTaskExecutor()}
+     * on Java 21. By default, events are published synchronously.
+     *
+     * @param executor executor publishing the events
+     * @param queueCapacity maximum number of events waiting to be published
+     * @param overflowPolicy what to do with events which do not fit into the queue
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setAsyncEventPublishing(@NonNull Executor executor, int queueCapacity,
+                                                                     @NonNull EventOverflowPolicy overflowPolicy) {
+        Assert.notNull(executor, "executor must not be null");
+        Assert.isTrue(queueCapacity > 0, "queueCapacity must be positive");
+        Assert.notNull(overflowPolicy, "overflowPolicy must not be null");
+        this.asyncEventPublisher = new AsyncSessionEventPublisher(event -> this.eventPublisher.publishEvent(event),
+                                                                  executor, queueCapacity, overflowPolicy,
+                                                                  () -> this.metricsRecorder.recordEventDropped());
+        return this;
+    }
+
+    /**
+     * Returns number of session events waiting to be published asynchronously.
+     */
+    int eventQueueSize() {
+        return (this.asyncEventPublisher != null) ? this.asyncEventPublisher.queueSize() : 0;
+    }
+
+    private void publishEvent(ApplicationEvent event) {
+        ApplicationEventPublisher publisher = (this.asyncEventPublisher != null)
+                ? this.asyncEventPublisher
+                : this.eventPublisher;
+        publisher.publishEvent(event);
+    }
+
+    /**
+     * Sets the maximum number of sessions of a single principal. Whenever a session is saved with a new principal
+     * name, other sessions of that principal are {@link #findSummariesByIndexNameAndIndexValue summarized} on the
+     * members and the least recently accessed ones are deleted, so that together with the saved session there are
+     * at most {@code maxSessions} of them.
+     * <p>
+     * Sessions are not locked while the limit is enforced, so concurrent logins of the same principal can briefly
+     * exceed it. By default, the number of sessions is unlimited.
+     *
+     * @param maxSessions maximum number of sessions per principal, {@code 0} if unlimited
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setMaxSessionsPerPrincipal(int maxSessions) {
+        Assert.isTrue(maxSessions >= 0, "maxSessions must not be negative");
+        this.maxSessionsPerPrincipal = maxSessions;
+        return this;
+    }
+
+    /**
+     * Sets the codec applied to serialized attributes which are at least {@code threshold} bytes long, typically
+     * a compression such as {@link AttributeCodec#DEFLATE}. Large attributes, e.g. security contexts or shopping
+     * carts, then take less memory in the cluster and less bandwidth on every read and write.
+     * <p>
+     * Each attribute is stored with the id of its codec, so attributes stored before the codec was set, or
+     * written by other nodes without it, remain readable. All nodes reading the sessions must however know the
+     * codec: {@link AttributeCodec#DEFLATE} is always known, a custom codec must be set on a repository of
+     * every node. A custom codec must have an {@link AttributeCodec#id() id} above 15, not used by any other codec
+     * in this JVM. Attributes for which the codec does not save any space are stored unencoded. By default,
+     * no codec is used.
+     *
+     * @param codec the codec, {@code null} to store attributes unencoded
+     * @param threshold minimal size of serialized attribute in bytes to be encoded
+     * @return this for fluent API
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public HazelcastIndexedSessionRepository setAttributeCodec(@Nullable AttributeCodec codec, int threshold) {
+        Assert.isTrue(threshold >= 0, "threshold must not be negative");
+        if (codec != null) {
+            AttributeCodecs.register(codec);
+        }
+        this.attributeCodec = codec;
+        this.attributeCodecThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Sets the recorder of operation metrics, see {@link HazelcastSessionRepositoryMetrics}.
+     */
+    void setMetricsRecorder(@NonNull SessionRepositoryMetricsRecorder metricsRecorder) {
+        Assert.notNull(metricsRecorder, "metricsRecorder must not be null");
+        this.metricsRecorder = metricsRecorder;
+    }
+
     /**
      * Replaces {@link SerializationService} that we got from {@link HazelcastInstance}.
      */
@@ -373,23 +846,53 @@ public class HazelcastIndexedSessionRepository
 
 	@Override
 	public void save(@NonNull HazelcastSession session) {
+        if (asyncSave) {
+            String sessionId = session.getId();
+            saveAsync(session).whenComplete((result, error) -> {
+                if (error != null) {
+                    LOGGER.warn("Asynchronous save of session {} failed", sessionId, error);
+                }
+            });
+            return;
+        }
 		final String sessionId = session.getId();
+        final long start = System.nanoTime();
         session.prepareAttributesSerializedForm(serializationService);
+        SaveOperation operation = null;
 		if (session.isNew) {
+            operation = SaveOperation.NEW;
 			this.sessions.set(session.getId(), session.getDelegate(), session.getMaxInactiveInterval().getSeconds(),
 					TimeUnit.SECONDS);
+            cacheLocally(session.getDelegate());
         } else if (session.sessionIdChanged) {
-            this.sessions.delete(session.originalId);
-            session.originalId = sessionId;
+            operation = SaveOperation.ID_CHANGED;
+            final String originalId = session.originalId;
+            session.getDelegate().incrementVersion();
+            // both keys usually belong to different partitions, so the session cannot be moved by a single
+            // operation; the original entry is deleted only once the new one is stored, so a failed write
+            // never loses the session
             this.sessions.set(sessionId, session.getDelegate(), session.getMaxInactiveInterval().getSeconds(),
                               TimeUnit.SECONDS);
+            this.sessions.delete(originalId);
+            invalidateLocallyCached(originalId);
+            session.originalId = sessionId;
+            cacheLocally(session.getDelegate());
+        } else if (!touchGranularity.isZero() && session.isOnlyTouchedWithin(touchGranularity)) {
+            // stored last accessed time is recent enough, skip the write
+            session.lastAccessedTimeChanged = false;
+            return;
         } else if (session.hasChanges()) {
-            SessionUpdateEntryProcessor entryProcessor = new SessionUpdateEntryProcessor(session);
+            SessionUpdateEntryProcessor entryProcessor = SessionUpdateEntryProcessor.of(session);
 
 			if (deployedOnAllMembers) {
 				try {
+                    operation = SaveOperation.DELTA;
                     //noinspection unchecked
                     this.sessions.executeOnKey(sessionId, entryProcessor);
+                    // the same happened to the stored session, unless someone else modified it in the meantime,
+                    // in which case the version check will not let us use the cached copy
+                    session.getDelegate().incrementVersion();
+                    cacheLocally(session.getDelegate());
 				} catch (HazelcastSerializationException e) {
 					deployedOnAllMembers = false;
 				}
@@ -397,93 +900,663 @@ public class HazelcastIndexedSessionRepository
 
             // revert back to slow path, as one of members does not have Hazelcast Spring Session deployed on the server
             if (!deployedOnAllMembers) {
-                sessions.lock(sessionId);
-                try {
-                    BackingMapSession mapSession = sessions.get(sessionId);
-                    if (mapSession != null) {
-                        entryProcessor.processMapSession(mapSession);
-                        sessions.set(sessionId, mapSession, session.getMaxInactiveInterval().getSeconds(), TimeUnit.SECONDS);
-                    }
-                } finally {
-                    sessions.unlock(sessionId);
+                operation = SaveOperation.FALLBACK;
+                BackingMapSession mapSession = updateWithoutEntryProcessor(sessionId, entryProcessor,
+                                                              session.getMaxInactiveInterval().getSeconds());
+                if (mapSession != null) {
+                    session.getDelegate().setVersion(mapSession.getVersion());
                 }
             }
         }
 
+        if (operation != null) {
+            this.metricsRecorder.recordSave(operation, System.nanoTime() - start);
+            recordSizes(session, operation);
+        }
+        String principalName = principalToLimit(session);
+        if (principalName != null) {
+            joinAll(enforceMaxSessionsPerPrincipal(session.getId(), principalName));
+        }
+        session.clearChangeFlags();
+    }
+
+    /**
+     * Returns the principal whose sessions must be limited after saving the given session, {@code null} if none.
+     * Must be called before change flags are cleared.
+     */
+    @Nullable
+    private String principalToLimit(HazelcastSession session) {
+        if (this.maxSessionsPerPrincipal == 0 || !session.principalNameReassigned()) {
+            return null;
+        }
+        return session.getDelegate().getPrincipalName();
+    }
+
+    /**
+     * Deletes the least recently accessed sessions of the given principal, other than the saved one, if they exceed
+     * {@link #setMaxSessionsPerPrincipal maxSessionsPerPrincipal}.
+     */
+    private CompletableFuture<Void> enforceMaxSessionsPerPrincipal(String savedSessionId, String principalName) {
+        List<SessionSummary> others = new ArrayList<>(
+                findSummariesByPrincipalName(principalName).values());
+        // the saved session may not be visible yet if it was saved asynchronously, it's always counted
+        others.removeIf(summary -> summary.getId().equals(savedSessionId));
+        int excess = others.size() + 1 - this.maxSessionsPerPrincipal;
+        if (excess <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        others.sort(Comparator.comparing(SessionSummary::getLastAccessedTime).thenComparing(SessionSummary::getId));
+        CompletableFuture<?>[] deletes = new CompletableFuture<?>[excess];
+        for (int i = 0; i < excess; i++) {
+            String id = others.get(i).getId();
+            LOGGER.debug("Deleting session {} of principal {}, maximum number of sessions exceeded", id, principalName);
+            deletes[i] = this.sessions.deleteAsync(id).toCompletableFuture();
+            invalidateLocallyCached(id);
+        }
+        return CompletableFuture.allOf(deletes);
+    }
+
+    /**
+     * Waits for all given futures, rethrowing the original exception if any of them failed.
+     */
+    private static void joinAll(CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Records sizes of the saved session and of the written attributes, must be called before change flags are cleared.
+     */
+    private void recordSizes(HazelcastSession session, SaveOperation operation) {
+        if (this.metricsRecorder != SessionRepositoryMetricsRecorder.NOOP) {
+            this.metricsRecorder.recordSessionSize(session.getDelegate().serializedAttributesSize());
+            if (operation == SaveOperation.NEW || operation == SaveOperation.ID_CHANGED) {
+                BackingMapSession delegate = session.getDelegate();
+                delegate.getAttributeNames().forEach(name -> recordAttributeSize(delegate.getAttribute(name)));
+            } else {
+                session.delta.values().forEach(this::recordAttributeSize);
+            }
+        }
+    }
+
+    private void recordAttributeSize(@Nullable AttributeValue value) {
+        byte[] bytes = (value == null) ? null : value.objectBytes();
+        if (bytes != null) {
+            this.metricsRecorder.recordAttributeSize(bytes.length);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #save(HazelcastSession)}, using {@link IMap#setAsync} and
+     * {@link IMap#submitToKey} instead of their blocking counterparts.
+     * <p>
+     * Writes of the same session are applied in the order of the calls, and {@link #findById(String)} and
+     * {@link #deleteById(String)} called on this repository wait for pending writes of the given session, so
+     * subsequent requests served by this node always see their own writes. At most
+     * {@link #setMaxInFlightWrites maxInFlightWrites} writes can be pending at the same time, callers are blocked
+     * until some of them complete otherwise.
+     * <p>
+     * If this library is not {@link #setDeployedOnAllMembers deployed on all members}, the
+     * {@code lock}-{@code get}-{@code set} fallback is ordered with other writes of the session the same way and runs
+     * on the {@link #setAsyncSaveExecutor asyncSaveExecutor}.
+     *
+     * @param session the session to save
+     * @return stage completed when the session is stored in the cluster
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public CompletionStage<Void> saveAsync(@NonNull HazelcastSession session) {
+        final String sessionId = session.getId();
+        final long ttlSeconds = session.getMaxInactiveInterval().getSeconds();
+        final long start = System.nanoTime();
+        session.prepareAttributesSerializedForm(serializationService);
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        SaveOperation operation = null;
+        if (session.isNew) {
+            operation = SaveOperation.NEW;
+            // writes can be chained after previous ones, don't let them see later changes of the session
+            BackingMapSession snapshot = session.getDelegate().serializedCopy();
+            result = submitWrite(sessionId, () -> this.sessions.setAsync(sessionId, snapshot, ttlSeconds, TimeUnit.SECONDS));
+            cacheLocally(session.getDelegate());
+        } else if (session.sessionIdChanged) {
+            operation = SaveOperation.ID_CHANGED;
+            final String originalId = session.originalId;
+            session.originalId = sessionId;
+            session.getDelegate().incrementVersion();
+            BackingMapSession snapshot = session.getDelegate().serializedCopy();
+            CompletableFuture<Void> set = submitWrite(sessionId,
+                                                      () -> this.sessions.setAsync(sessionId, snapshot, ttlSeconds, TimeUnit.SECONDS));
+            // the original entry is deleted only if the new one was stored
+            result = submitWrite(originalId, () -> set.thenCompose(ignored -> this.sessions.deleteAsync(originalId)));
+            invalidateLocallyCached(originalId);
+            cacheLocally(session.getDelegate());
+        } else if (!touchGranularity.isZero() && session.isOnlyTouchedWithin(touchGranularity)) {
+            // stored last accessed time is recent enough, skip the write
+            session.lastAccessedTimeChanged = false;
+            return result;
+        } else if (session.hasChanges()) {
+            SessionUpdateEntryProcessor entryProcessor = SessionUpdateEntryProcessor.of(session);
+            if (deployedOnAllMembers) {
+                operation = SaveOperation.DELTA;
+                result = submitWrite(sessionId, () -> submitToKeyWithFallback(sessionId, entryProcessor, ttlSeconds));
+                session.getDelegate().incrementVersion();
+                cacheLocally(session.getDelegate());
+            } else {
+                operation = SaveOperation.FALLBACK;
+                // unlike save, the stored version is not copied to the session: the caller may be using it
+                // concurrently, and versions are needed only by the local cache, which is not used on this path
+                result = submitWrite(sessionId, () -> CompletableFuture.runAsync(
+                        () -> updateWithoutEntryProcessor(sessionId, entryProcessor, ttlSeconds), this.asyncSaveExecutor));
+            }
+        }
+
+        if (operation != null) {
+            final SaveOperation recordedOperation = operation;
+            result.whenComplete((ignored, error) ->
+                    this.metricsRecorder.recordSave(recordedOperation, System.nanoTime() - start));
+            recordSizes(session, operation);
+        }
+        final String principalName = principalToLimit(session);
+        if (principalName != null) {
+            // the query blocks, don't run it on the thread completing the write
+            result = result.thenComposeAsync(ignored -> enforceMaxSessionsPerPrincipal(sessionId, principalName),
+                                             this.asyncSaveExecutor);
+        }
         session.clearChangeFlags();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletionStage<?> submitToKeyWithFallback(String sessionId, SessionUpdateEntryProcessor entryProcessor,
+                                                       long ttlSeconds) {
+        EntryProcessor<String, BackingMapSession, Object> processor = entryProcessor;
+        return this.sessions.submitToKey(sessionId, processor)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = (error instanceof CompletionException) ? error.getCause() : error;
+                    if (!(cause instanceof HazelcastSerializationException)) {
+                        return CompletableFuture.failedStage(error);
+                    }
+                    deployedOnAllMembers = false;
+                    // lock is owned by a thread, so the fallback must not be split between multiple callbacks
+                    return CompletableFuture.<Object>supplyAsync(
+                            () -> updateWithoutEntryProcessor(sessionId, entryProcessor, ttlSeconds), this.asyncSaveExecutor);
+                });
+    }
+
+    /**
+     * Runs the given write after the previous pending write of the same session.
+     */
+    private CompletableFuture<Void> submitWrite(String sessionId, Supplier<CompletionStage<?>> write) {
+        if (!this.writesSubmitted) {
+            this.writesSubmitted = true;
+        }
+        Semaphore inFlightWrites = this.inFlightWrites;
+        inFlightWrites.acquireUninterruptibly();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> previous = this.pendingWrites.put(sessionId, future);
+        CompletableFuture<?> start = (previous == null)
+                ? CompletableFuture.completedFuture(null)
+                : previous.handle((ignored, error) -> null);
+        start.thenCompose(ignored -> write.get().<Void>thenApply(result -> null))
+                .whenComplete((ignored, error) -> {
+                    this.pendingWrites.remove(sessionId, future);
+                    inFlightWrites.release();
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(null);
+                    }
+                });
+        return future;
+    }
+
+    private void awaitPendingWrite(String sessionId) {
+        CompletableFuture<Void> pending = this.pendingWrites.get(sessionId);
+        if (pending != null) {
+            try {
+                pending.join();
+            } catch (CompletionException | CancellationException e) {
+                // failure is reported to the caller of saveAsync, we read whatever is stored
+                LOGGER.debug("Pending write of session {} failed", sessionId, e);
+            }
+        }
+    }
+
+    /**
+     * Slow path, used if this library is not deployed on all members.
+     *
+     * @return updated session or {@code null} if there is no such session stored
+     */
+    @Nullable
+    private BackingMapSession updateWithoutEntryProcessor(String sessionId, SessionUpdateEntryProcessor entryProcessor,
+                                                          long ttlSeconds) {
+        for (int attempt = 0; attempt < optimisticUpdateAttempts; attempt++) {
+            BackingMapSession current = sessions.get(sessionId);
+            if (current == null) {
+                return null;
+            }
+            if (current.getVersion() == BackingMapSession.UNVERSIONED) {
+                break;
+            }
+            BackingMapSession updated = current.serializedCopy();
+            entryProcessor.processMapSession(updated);
+            if (sessions.replace(sessionId, current, updated)) {
+                // replace keeps the TTL of the entry and counts it from now, it has to be updated only if it changed
+                if (entryProcessor.maxInactiveInterval != null) {
+                    sessions.setTtl(sessionId, ttlSeconds, TimeUnit.SECONDS);
+                }
+                return updated;
+            }
+            LOGGER.debug("Session {} modified concurrently, optimistic update attempt {} failed", sessionId, attempt + 1);
+        }
+        return updateWithLock(sessionId, entryProcessor, ttlSeconds);
+    }
+
+    @Nullable
+    private BackingMapSession updateWithLock(String sessionId, SessionUpdateEntryProcessor entryProcessor, long ttlSeconds) {
+        sessions.lock(sessionId);
+        try {
+            BackingMapSession mapSession = sessions.get(sessionId);
+            if (mapSession != null) {
+                entryProcessor.processMapSession(mapSession);
+                sessions.set(sessionId, mapSession, ttlSeconds, TimeUnit.SECONDS);
+            }
+            return mapSession;
+        } finally {
+            sessions.unlock(sessionId);
+        }
     }
 
     @Override
     @Nullable
     public HazelcastSession findById(String id) {
-		BackingMapSession saved = this.sessions.get(id);
-		if (saved == null) {
-			return null;
-		}
+        final long start = System.nanoTime();
+        awaitPendingWrite(id);
+        BackingMapSession saved = findStoredSession(id);
+        if (saved == null) {
+            this.metricsRecorder.recordFindById(FindResult.MISS, System.nanoTime() - start);
+            return null;
+        }
 		if (saved.isExpired()) {
 			deleteById(saved.getId());
+            this.metricsRecorder.recordFindById(FindResult.EXPIRED, System.nanoTime() - start);
 			return null;
 		}
+        this.metricsRecorder.recordFindById(FindResult.HIT, System.nanoTime() - start);
 		return new HazelcastSession(saved);
 	}
 
+    /**
+     * Returns the stored session, using the local cache if it's enabled and the cached copy is up-to-date.
+     */
+    @Nullable
+    private BackingMapSession findStoredSession(String id) {
+        if (useLocalSessionCache()) {
+            BackingMapSession cached = this.localSessionCache.get(id);
+            if (cached != null) {
+                Long storedVersion = getStoredVersion(id);
+                if (storedVersion == null && deployedOnAllMembers) {
+                    this.localSessionCache.invalidate(id);
+                    return null;
+                }
+                if (storedVersion != null && storedVersion != BackingMapSession.UNVERSIONED
+                        && storedVersion == cached.getVersion()) {
+                    return cached.serializedCopy();
+                }
+                this.localSessionCache.invalidate(id);
+            }
+        }
+        BackingMapSession saved = this.sessions.get(id);
+        if (saved != null) {
+            cacheLocally(saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Finds sessions with given ids using a single {@link IMap#getAll} call, which fetches the entries of each
+     * partition owner in one operation.
+     * <p>
+     * Expired sessions are not returned, they are deleted concurrently before this method returns.
+     *
+     * @param ids ids of the sessions to find
+     * @return found sessions mapped by their ids, ids of missing or expired sessions are not present
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public Map<String, HazelcastSession> findAllById(@NonNull Collection<String> ids) {
+        Assert.notNull(ids, "ids must not be null");
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<String> keys = new HashSet<>(ids);
+        keys.forEach(this::awaitPendingWrite);
+        Map<String, BackingMapSession> stored = this.sessions.getAll(keys);
+
+        Map<String, HazelcastSession> result = new HashMap<>(stored.size());
+        List<CompletableFuture<?>> deletes = new ArrayList<>();
+        for (BackingMapSession session : stored.values()) {
+            if (session.isExpired()) {
+                String id = session.getId();
+                deletes.add(this.sessions.deleteAsync(id).toCompletableFuture());
+                invalidateLocallyCached(id);
+            } else {
+                cacheLocally(session);
+                result.put(session.getId(), new HazelcastSession(session));
+            }
+        }
+        if (!deletes.isEmpty()) {
+            joinAll(deletes.toArray(new CompletableFuture<?>[0]));
+        }
+        return result;
+    }
+
 	@Override
 	public void deleteById(@NonNull String id) {
+        final long start = System.nanoTime();
+        awaitPendingWrite(id);
 		this.sessions.remove(id);
+        invalidateLocallyCached(id);
+        this.metricsRecorder.recordDeleteById(System.nanoTime() - start);
 	}
 
+    /**
+     * Returns the version of stored session, {@code null} if there is no such session or if the version cannot be
+     * checked, because this library is not deployed on all members.
+     */
+    @Nullable
+    private Long getStoredVersion(@NonNull String id) {
+        try {
+            //noinspection unchecked
+            return (Long) this.sessions.executeOnKey(id, new SessionVersionEntryProcessor());
+        } catch (HazelcastSerializationException e) {
+            deployedOnAllMembers = false;
+            return null;
+        }
+    }
+
+    private boolean useLocalSessionCache() {
+        return this.localSessionCache != null && deployedOnAllMembers;
+    }
+
+    private void cacheLocally(@NonNull BackingMapSession session) {
+        // unversioned sessions cannot be validated
+        if (useLocalSessionCache() && session.getVersion() != BackingMapSession.UNVERSIONED) {
+            this.localSessionCache.put(session);
+        }
+    }
+
+    private void invalidateLocallyCached(@NonNull String id) {
+        if (this.localSessionCache != null) {
+            this.localSessionCache.invalidate(id);
+        }
+    }
+
 	@Override
     @NonNull
 	public Map<String, HazelcastSession> findByIndexNameAndIndexValue(@NonNull String indexName, @Nullable String indexValue) {
 		if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
 			return Collections.emptyMap();
 		}
+        final long start = System.nanoTime();
 		Collection<BackingMapSession> sessions = this.sessions.values(Predicates.equal(PRINCIPAL_NAME_ATTRIBUTE, indexValue));
 		Map<String, HazelcastSession> sessionMap = new HashMap<>(sessions.size());
 		for (BackingMapSession session : sessions) {
 			sessionMap.put(session.getId(), new HazelcastSession(session));
 		}
+        this.metricsRecorder.recordFindByIndex(System.nanoTime() - start);
 		return sessionMap;
 	}
 
+    /**
+     * Streaming variant of {@link #findByIndexNameAndIndexValue}, for principals with many sessions. Sessions are
+     * ordered by last accessed time, least recently accessed first, and fetched lazily in pages of the given size
+     * using a {@link PagingPredicate}, so at most one page is held in memory.
+     * <p>
+     * Pages are fetched when the stream is consumed, sessions accessed or modified in the meantime can therefore be
+     * skipped or returned twice. If this library is not {@link #setDeployedOnAllMembers deployed on all members},
+     * members cannot order the sessions and all of them are fetched at once and sorted locally.
+     *
+     * @param indexName name of the index, only {@link FindByIndexNameSessionRepository#PRINCIPAL_NAME_INDEX_NAME}
+     *                  is supported
+     * @param indexValue value of the index
+     * @param pageSize number of sessions fetched at once
+     * @return matching sessions, least recently accessed first
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public Stream<HazelcastSession> streamByIndexNameAndIndexValue(@NonNull String indexName, @Nullable String indexValue,
+                                                                   int pageSize) {
+        Assert.isTrue(pageSize > 0, "pageSize must be positive");
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Stream.empty();
+        }
+        Predicate<String, BackingMapSession> predicate = Predicates.equal(PRINCIPAL_NAME_ATTRIBUTE, indexValue);
+        Iterator<BackingMapSession> sessions = deployedOnAllMembers
+                ? new PagedSessionIterator(predicate, pageSize)
+                : findSortedByLastAccessedTime(predicate).iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(sessions, Spliterator.ORDERED | Spliterator.NONNULL),
+                                    false)
+                .map(HazelcastSession::new);
+    }
+
+    private List<BackingMapSession> findSortedByLastAccessedTime(Predicate<String, BackingMapSession> predicate) {
+        List<BackingMapSession> sessions = new ArrayList<>(this.sessions.values(predicate));
+        sessions.sort(Comparator.comparing(BackingMapSession::getLastAccessedTime).thenComparing(BackingMapSession::getId));
+        return sessions;
+    }
+
+    /**
+     * Iterates over sessions matching the predicate, fetching next page once the previous one is consumed.
+     */
+    private final class PagedSessionIterator implements Iterator<BackingMapSession> {
+
+        private final Predicate<String, BackingMapSession> predicate;
+
+        private final PagingPredicate<String, BackingMapSession> pagingPredicate;
+
+        private Iterator<BackingMapSession> page;
+
+        private boolean lastPage;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        PagedSessionIterator(Predicate<String, BackingMapSession> predicate, int pageSize) {
+            Comparator comparator = new SessionLastAccessedTimeComparator();
+            this.predicate = predicate;
+            this.pagingPredicate = Predicates.pagingPredicate(predicate, comparator, pageSize);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while ((this.page == null || !this.page.hasNext()) && !this.lastPage) {
+                fetchNextPage();
+            }
+            return this.page.hasNext();
+        }
+
+        @Override
+        public BackingMapSession next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.page.next();
+        }
+
+        private void fetchNextPage() {
+            if (this.page != null) {
+                this.pagingPredicate.nextPage();
+            }
+            Collection<BackingMapSession> values;
+            try {
+                values = sessions.values(this.pagingPredicate);
+            } catch (HazelcastSerializationException e) {
+                deployedOnAllMembers = false;
+                this.page = findSortedByLastAccessedTime(this.predicate).iterator();
+                this.lastPage = true;
+                return;
+            }
+            this.page = values.iterator();
+            this.lastPage = values.size() < this.pagingPredicate.getPageSize();
+        }
+    }
+
+    /**
+     * Lightweight variant of {@link #findByIndexNameAndIndexValue}, returning only the metadata of matching sessions.
+     * Sessions are {@link IMap#project projected} on the members, so their attributes are neither deserialized nor
+     * transferred. Expired sessions are not returned.
+     *
+     * @param indexName name of the index, only {@link FindByIndexNameSessionRepository#PRINCIPAL_NAME_INDEX_NAME}
+     *                  is supported
+     * @param indexValue value of the index
+     * @return summaries of matching sessions mapped by session ids
+     *
+     * @since 4.1.0
+     */
+    @NonNull
+    public Map<String, SessionSummary> findSummariesByIndexNameAndIndexValue(@NonNull String indexName,
+                                                                             @Nullable String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Collections.emptyMap();
+        }
+        final long start = System.nanoTime();
+        Map<String, SessionSummary> summaries = findSummariesByPrincipalName(indexValue);
+        this.metricsRecorder.recordFindSummariesByIndex(System.nanoTime() - start);
+        return summaries;
+    }
+
+    /**
+     * Same as {@link #findSummariesByIndexNameAndIndexValue}, not recorded by the metrics recorder, for internal
+     * queries which are not lookups of the caller.
+     */
+    private Map<String, SessionSummary> findSummariesByPrincipalName(@Nullable String principalName) {
+        Collection<Object[]> rows = this.sessions.project(SUMMARY_PROJECTION,
+                                                          Predicates.equal(PRINCIPAL_NAME_ATTRIBUTE, principalName));
+        Map<String, SessionSummary> summaries = new HashMap<>(rows.size());
+        Instant now = Instant.now();
+        for (Object[] row : rows) {
+            SessionSummary summary = toSessionSummary(row);
+            if (!summary.isExpired(now)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Converts row of {@link #SUMMARY_PROJECTION}. Sessions stored before 4.1 have only the fields of the old time
+     * layout, these are projected as {@code null} otherwise.
+     */
+    private static SessionSummary toSessionSummary(Object[] row) {
+        String id = (String) row[0];
+        if (row[1] != null) {
+            return new SessionSummary(id, Instant.ofEpochMilli((Long) row[1]), Instant.ofEpochMilli((Long) row[2]),
+                                      Duration.ofMillis((Long) row[3]));
+        }
+        return new SessionSummary(id, Instant.ofEpochSecond((Long) row[4], (Integer) row[5]),
+                                  Instant.ofEpochSecond((Long) row[6], (Integer) row[7]),
+                                  Duration.ofSeconds((Long) row[8], (Integer) row[9]));
+    }
+
+    /**
+     * Deletes all sessions of the given principal. Matching sessions are removed by the members owning them, so no
+     * session is transferred to this node.
+     *
+     * @param principalName name of the principal
+     *
+     * @since 4.1.0
+     */
+    public void deleteByPrincipalName(@NonNull String principalName) {
+        Assert.notNull(principalName, "principalName must not be null");
+        deleteByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, principalName);
+    }
+
+    /**
+     * Deletes all sessions with the given index value, using {@link IMap#removeAll}. Only
+     * {@link FindByIndexNameSessionRepository#PRINCIPAL_NAME_INDEX_NAME} is supported, the same as in
+     * {@link #findByIndexNameAndIndexValue}; other index names and {@code null} values are ignored.
+     *
+     * @param indexName name of the index
+     * @param indexValue value of the index
+     *
+     * @since 4.1.0
+     */
+    public void deleteByIndexNameAndIndexValue(@NonNull String indexName, @Nullable String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName) || indexValue == null) {
+            return;
+        }
+        this.sessions.removeAll(Predicates.equal(PRINCIPAL_NAME_ATTRIBUTE, indexValue));
+    }
+
 	@Override
 	public void entryAdded(@NonNull EntryEvent<String, BackingMapSession> event) {
 		BackingMapSession session = event.getValue();
+        if (session == null) {
+            // listener registered without values, sessions with changed ids cannot be told apart,
+            // see setIncludeValuesInEvents
+            String id = event.getKey();
+            LOGGER.debug("Session created with id: {}", id);
+            publishEvent(new SessionCreatedEvent(this, new LazyLoadedSession(id, () -> loadForEvent(id))));
+            return;
+        }
 		if (session.getId().equals(session.getOriginalId())) {
 			if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Session created with id: {}", session.getId());
 			}
-			this.eventPublisher.publishEvent(new SessionCreatedEvent(this, new HazelcastSession(session)));
+			publishEvent(new SessionCreatedEvent(this, new HazelcastSession(session)));
 		}
 	}
 
 	@Override
 	public void entryEvicted(@NonNull EntryEvent<String, BackingMapSession> event) {
+        invalidateLocallyCached(event.getKey());
 		if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Session evicted with id: {}", event.getOldValue().getId());
+            LOGGER.debug("Session evicted with id: {}", event.getKey());
 		}
-		this.eventPublisher.publishEvent(new SessionExpiredEvent(this, new HazelcastSession(event.getOldValue())));
+		publishEvent(new SessionExpiredEvent(this, oldSession(event)));
 	}
 
 	@Override
 	public void entryRemoved(EntryEvent<String, BackingMapSession> event) {
-		BackingMapSession session = event.getOldValue();
-		if (session != null) {
-			if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Session deleted with id: {}", session.getId());
-			}
-			this.eventPublisher.publishEvent(new SessionDeletedEvent(this, new HazelcastSession(session)));
+        invalidateLocallyCached(event.getKey());
+		if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Session deleted with id: {}", event.getKey());
 		}
+		publishEvent(new SessionDeletedEvent(this, oldSession(event)));
 	}
 
 	@Override
 	public void entryExpired(EntryEvent<String, BackingMapSession> event) {
+        invalidateLocallyCached(event.getKey());
 		if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Session expired with id: {}", event.getOldValue().getId());
+            LOGGER.debug("Session expired with id: {}", event.getKey());
 		}
-		this.eventPublisher.publishEvent(new SessionExpiredEvent(this, new HazelcastSession(event.getOldValue())));
+		publishEvent(new SessionExpiredEvent(this, oldSession(event)));
 	}
 
+    /**
+     * Returns the session removed from the map, or a session with its id only if the listener was registered
+     * without values; the session is no longer stored, so it cannot be loaded.
+     */
+    private HazelcastSession oldSession(EntryEvent<String, BackingMapSession> event) {
+        BackingMapSession session = event.getOldValue();
+        return new HazelcastSession((session != null) ? session : new BackingMapSession(event.getKey()));
+    }
+
+    @Nullable
+    private HazelcastSession loadForEvent(String id) {
+        BackingMapSession session = this.sessions.get(id);
+        return (session != null) ? new HazelcastSession(session) : null;
+    }
+
 	/**
 	 * Set the {@link SessionIdGenerator} to use to generate session ids.
 	 * @param sessionIdGenerator the {@link SessionIdGenerator} to use
@@ -500,173 +1573,46 @@ public class HazelcastIndexedSessionRepository
 	 *
 	 * @author Aleksandar Stojsavljevic
 	 */
-	public final class HazelcastSession implements Session {
-
-		private final BackingMapSession delegate;
-
-		private boolean isNew;
-
-		boolean sessionIdChanged;
-
-		boolean lastAccessedTimeChanged;
-
-		boolean maxInactiveIntervalChanged;
-
-		private String originalId;
-
-		final Map<String, AttributeValue> delta = new HashMap<>();
-        boolean principalNameChanged;
+	public final class HazelcastSession extends AbstractHazelcastSession {
 
 		HazelcastSession(@NonNull BackingMapSession cached, boolean isNew) {
-			this.delegate = cached;
-			this.isNew = isNew;
-			this.originalId = cached.getId();
-			if (this.isNew || (saveMode == SaveMode.ALWAYS)) {
-				delegate.getAttributeNames()
-					.forEach((attributeName) -> registerDelta(attributeName, cached.getAttribute(attributeName)));
-			}
+			super(cached, isNew, saveMode);
 		}
-        /**
-         *  New principalName will be registered in {@link BackingMapSession#setAttribute}, so in case of these attributes
-         *  we only mark that there was a change.
-         *  <p>
-         *  Otherwise changed attribute will be added to {@link #delta}.
-         */
-        private void registerDelta(String attributeName, @Nullable AttributeValue attribute) {
-            if (PRINCIPAL_NAME_ATTRIBUTES.contains(attributeName)) {
-                principalNameChanged = true;
-                return;
-            }
-            this.delta.put(attributeName, attribute);
-        }
-
-        boolean principalNameChanged() {
-            return principalNameChanged;
-        }
 
 		HazelcastSession(@NonNull BackingMapSession cached) {
 			this(cached, false);
 		}
 
 		@Override
-		public void setLastAccessedTime(@NonNull Instant lastAccessedTime) {
-			this.delegate.setLastAccessedTime(lastAccessedTime);
-			this.lastAccessedTimeChanged = true;
-			flushImmediateIfNecessary();
-		}
-
-		@Override
-		public boolean isExpired() {
-			return this.delegate.isExpired();
-		}
-
-		@Override
-		public Instant getCreationTime() {
-			return this.delegate.getCreationTime();
-		}
-
-		@Override
-        @NonNull
-        public String getId() {
-			return this.delegate.getId();
+		SaveMode saveMode() {
+			return saveMode;
 		}
 
 		@Override
-		public String changeSessionId() {
-			String newSessionId = sessionIdGenerator.generate();
-			this.delegate.setId(newSessionId);
-			this.sessionIdChanged = true;
-			return newSessionId;
+		SerializationService serializationService() {
+			return serializationService;
 		}
 
 		@Override
-		public Instant getLastAccessedTime() {
-			return this.delegate.getLastAccessedTime();
+		IndexResolver<Session> indexResolver() {
+			return indexResolver;
 		}
 
 		@Override
-		public void setMaxInactiveInterval(Duration interval) {
-			this.delegate.setMaxInactiveInterval(interval);
-			this.maxInactiveIntervalChanged = true;
-			flushImmediateIfNecessary();
+		String generateSessionId() {
+			return sessionIdGenerator.generate();
 		}
 
 		@Override
-		public Duration getMaxInactiveInterval() {
-			return this.delegate.getMaxInactiveInterval();
-		}
-
-        @Override
-		@SuppressWarnings("unchecked")
-        @Nullable
-		public <T> T getAttribute(String attributeName) {
-            AttributeValue attributeValue = this.delegate.getAttribute(attributeName);
-			if (attributeValue == null) {
-                return null;
-            }
-            attributeValue.deserialize(serializationService);
-            if (saveMode.equals(SaveMode.ON_GET_ATTRIBUTE)) {
-                registerDelta(attributeName, attributeValue);
-			}
-            return (T) attributeValue.object();
-		}
-
-		@Override
-        @NonNull
-        public Set<String> getAttributeNames() {
-			return this.delegate.getAttributeNames();
-		}
-
-		@Override
-		public void setAttribute(@NonNull String attributeName, @Nullable Object attributeValue) {
-            if (attributeValue == null) {
-                this.delegate.removeAttribute(attributeName);
-                this.delta.put(attributeName, null);
-            } else {
-                AttributeValue value = AttributeValue.deserialized(attributeValue);
-
-                this.delegate.setAttribute(attributeName, value);
-                registerDelta(attributeName, value);
-            }
-			if (SPRING_SECURITY_CONTEXT.equals(attributeName)) {
-				Map<String, String> indexes = indexResolver.resolveIndexesFor(this);
-				String principal = (attributeValue != null) ? indexes.get(PRINCIPAL_NAME_INDEX_NAME) : null;
-				this.delegate.setPrincipalName(principal);
-                this.principalNameChanged = true;
-			}
+		void afterChange() {
 			flushImmediateIfNecessary();
 		}
 
         void prepareAttributesSerializedForm(SerializationService serializationService) {
-            this.delegate.prepareAttributesSerializedForm(serializationService);
-            delta.forEach((attributeName, attributeValue) -> {
-                if (attributeValue != null) {
-                    attributeValue.serialize(serializationService);
-                }
-            });
+            prepareAttributesSerializedForm(serializationService, attributeCodec, attributeCodecThreshold,
+                                            skipUnchangedAttributes);
         }
 
-        @Override
-		public void removeAttribute(@NonNull String attributeName) {
-			setAttribute(attributeName, null);
-		}
-
-		BackingMapSession getDelegate() {
-			return this.delegate;
-		}
-
-		boolean hasChanges() {
-			return (this.lastAccessedTimeChanged || this.maxInactiveIntervalChanged || !this.delta.isEmpty() || principalNameChanged);
-		}
-
-		void clearChangeFlags() {
-			this.isNew = false;
-			this.lastAccessedTimeChanged = false;
-			this.sessionIdChanged = false;
-			this.maxInactiveIntervalChanged = false;
-			this.delta.clear();
-		}
-
 		private void flushImmediateIfNecessary() {
 			if (flushMode == FlushMode.IMMEDIATE) {
 				save(this);
@@ -16,6 +16,7 @@
 
 package com.hazelcast.spring.session;
 
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.compact.CompactReader;
 import com.hazelcast.nio.serialization.compact.CompactSerializer;
 import com.hazelcast.nio.serialization.compact.CompactWriter;
@@ -23,6 +24,8 @@ import com.hazelcast.spring.session.serialization.DurationSerializer;
 import com.hazelcast.spring.session.serialization.InstantSerializer;
 import org.jspecify.annotations.NonNull;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Set;
 
 /**
@@ -54,12 +57,55 @@ import java.util.Set;
  * HazelcastInstance hazelcastClient = HazelcastClient.newHazelcastClient(clientConfig);
  * </pre>
  *
+ * Since 4.1, times are stored as epoch milliseconds and the max inactive interval in milliseconds, in non-nullable
+ * fields. Sessions stored in the previous layout are still readable, see {@link #LEGACY_TIME_LAYOUT_PROPERTY}.
+ *
  * @since 4.0.0
  */
 public final class HazelcastSessionCompactSerializer implements CompactSerializer<BackingMapSession> {
 
     public static final HazelcastSessionCompactSerializer INSTANCE = new HazelcastSessionCompactSerializer();
 
+    static final String VERSION_FIELD = "version";
+
+    static final String CREATION_TIME_FIELD = "creationTimeMillis";
+
+    static final String LAST_ACCESSED_TIME_FIELD = "lastAccessedTimeMillis";
+
+    static final String MAX_INACTIVE_INTERVAL_FIELD = "maxInactiveIntervalMillis";
+
+    /*
+     * Fields of the layout used before 4.1, each time is split by InstantSerializer or DurationSerializer
+     * into a _seconds and a _nanos field.
+     */
+
+    static final String LEGACY_CREATION_TIME_FIELD = "creationTime";
+
+    static final String LEGACY_LAST_ACCESSED_TIME_FIELD = "lastAccessedTime";
+
+    static final String LEGACY_MAX_INACTIVE_INTERVAL_FIELD = "maxInactiveInterval";
+
+    static final String LEGACY_CREATION_TIME_SECONDS_FIELD = LEGACY_CREATION_TIME_FIELD + "_seconds";
+
+    static final String LEGACY_CREATION_TIME_NANOS_FIELD = LEGACY_CREATION_TIME_FIELD + "_nanos";
+
+    static final String LEGACY_LAST_ACCESSED_TIME_SECONDS_FIELD = LEGACY_LAST_ACCESSED_TIME_FIELD + "_seconds";
+
+    static final String LEGACY_LAST_ACCESSED_TIME_NANOS_FIELD = LEGACY_LAST_ACCESSED_TIME_FIELD + "_nanos";
+
+    static final String LEGACY_MAX_INACTIVE_INTERVAL_SECONDS_FIELD = LEGACY_MAX_INACTIVE_INTERVAL_FIELD + "_seconds";
+
+    static final String LEGACY_MAX_INACTIVE_INTERVAL_NANOS_FIELD = LEGACY_MAX_INACTIVE_INTERVAL_FIELD + "_nanos";
+
+    /**
+     * Name of the system property which, if set to {@code true}, makes the serializer write times in the layout used
+     * before 4.1, as pairs of nullable {@code _seconds} and {@code _nanos} fields. Needed only during a rolling
+     * upgrade from 4.0, while some nodes cannot read the new layout yet; both layouts are always readable.
+     */
+    public static final String LEGACY_TIME_LAYOUT_PROPERTY = "hazelcast.spring.session.legacy.time.layout";
+
+    private static final boolean LEGACY_TIME_LAYOUT = Boolean.getBoolean(LEGACY_TIME_LAYOUT_PROPERTY);
+
     private HazelcastSessionCompactSerializer() {
     }
 
@@ -70,17 +116,27 @@ public final class HazelcastSessionCompactSerializer implements CompactSerialize
         BackingMapSession cached = new BackingMapSession(originalId);
         cached.setId(reader.readString("id"));
         cached.setPrincipalName(reader.readString("principalName"));
-        cached.setCreationTime(InstantSerializer.read(reader, "creationTime"));
-        cached.setLastAccessedTime(InstantSerializer.read(reader, "lastAccessedTime"));
-        cached.setMaxInactiveInterval(DurationSerializer.read(reader, "maxInactiveInterval"));
+        if (reader.getFieldKind(LAST_ACCESSED_TIME_FIELD) == FieldKind.INT64) {
+            cached.setCreationTime(Instant.ofEpochMilli(reader.readInt64(CREATION_TIME_FIELD)));
+            cached.setLastAccessedTime(Instant.ofEpochMilli(reader.readInt64(LAST_ACCESSED_TIME_FIELD)));
+            cached.setMaxInactiveInterval(Duration.ofMillis(reader.readInt64(MAX_INACTIVE_INTERVAL_FIELD)));
+        } else {
+            // layout used before 4.1
+            cached.setCreationTime(InstantSerializer.read(reader, LEGACY_CREATION_TIME_FIELD));
+            cached.setLastAccessedTime(InstantSerializer.read(reader, LEGACY_LAST_ACCESSED_TIME_FIELD));
+            cached.setMaxInactiveInterval(DurationSerializer.read(reader, LEGACY_MAX_INACTIVE_INTERVAL_FIELD));
+        }
+        // entries written by versions before 4.1 do not have the field
+        cached.setVersion((reader.getFieldKind(VERSION_FIELD) == FieldKind.INT64)
+                ? reader.readInt64(VERSION_FIELD)
+                : BackingMapSession.UNVERSIONED);
         String[] attributeNames = reader.readArrayOfString("attributeNames");
         AttributeValue[] attributeValues = reader.readArrayOfCompact("attributeValues", AttributeValue.class);
 
         assert attributeNames != null : "Attribute names should not be null";
         assert attributeValues != null : "Attribute values should not be null";
-        for (int i = 0; i < attributeNames.length; i++) {
-            cached.setSerializedAttribute(attributeNames[i], attributeValues[i]);
-        }
+        // attributes are indexed only if the session is modified, most requests just read a few of them
+        cached.setSerializedAttributes(attributeNames, attributeValues);
         return cached;
     }
 
@@ -89,9 +145,16 @@ public final class HazelcastSessionCompactSerializer implements CompactSerialize
         writer.writeString("originalId", session.getOriginalId());
         writer.writeString("id", session.getId());
         writer.writeString("principalName", session.getPrincipalName());
-        InstantSerializer.write(writer, "creationTime", session.getCreationTime());
-        InstantSerializer.write(writer, "lastAccessedTime", session.getLastAccessedTime());
-        DurationSerializer.write(writer, "maxInactiveInterval", session.getMaxInactiveInterval());
+        if (LEGACY_TIME_LAYOUT) {
+            InstantSerializer.write(writer, LEGACY_CREATION_TIME_FIELD, session.getCreationTime());
+            InstantSerializer.write(writer, LEGACY_LAST_ACCESSED_TIME_FIELD, session.getLastAccessedTime());
+            DurationSerializer.write(writer, LEGACY_MAX_INACTIVE_INTERVAL_FIELD, session.getMaxInactiveInterval());
+        } else {
+            writer.writeInt64(CREATION_TIME_FIELD, session.getCreationTime().toEpochMilli());
+            writer.writeInt64(LAST_ACCESSED_TIME_FIELD, session.getLastAccessedTime().toEpochMilli());
+            writer.writeInt64(MAX_INACTIVE_INTERVAL_FIELD, session.getMaxInactiveInterval().toMillis());
+        }
+        writer.writeInt64(VERSION_FIELD, session.getVersion());
         Set<String> attributeNames = session.getAttributeNameWithoutPrincipal();
         AttributeValue[] attributeValues = attributeNames.stream().map(session::getAttribute).toArray(AttributeValue[]::new);
 
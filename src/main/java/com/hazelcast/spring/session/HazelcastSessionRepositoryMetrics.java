@@ -0,0 +1,192 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import org.springframework.util.Assert;
+
+/**
+ * Micrometer {@link MeterBinder} instrumenting {@link HazelcastIndexedSessionRepository}.
+ * <p>
+ * Registers the following meters, all tagged with the name of the session map:
+ * <ul>
+ * <li>{@code spring.session.hazelcast.save} - timer of {@code save} calls, tagged by {@code operation}
+ * ({@code new}, {@code id_changed}, {@code delta}, {@code fallback}); saves which did not write anything are not
+ * recorded</li>
+ * <li>{@code spring.session.hazelcast.find} - timer of {@code findById} calls, tagged by {@code result}
+ * ({@code hit}, {@code miss}, {@code expired})</li>
+ * <li>{@code spring.session.hazelcast.delete} - timer of {@code deleteById} calls</li>
+ * <li>{@code spring.session.hazelcast.find.by.index} - timer of {@code findByIndexNameAndIndexValue} calls</li>
+ * <li>{@code spring.session.hazelcast.find.summaries.by.index} - timer of
+ * {@code findSummariesByIndexNameAndIndexValue} calls, queries of
+ * {@link HazelcastIndexedSessionRepository#setMaxSessionsPerPrincipal maxSessionsPerPrincipal} enforcement are not
+ * recorded</li>
+ * <li>{@code spring.session.hazelcast.session.size} - serialized size of all attributes of saved sessions</li>
+ * <li>{@code spring.session.hazelcast.attribute.size} - serialized size of attributes written by saves</li>
+ * <li>{@code spring.session.hazelcast.events.queued} - number of session events waiting to be
+ * {@link HazelcastIndexedSessionRepository#setAsyncEventPublishing published asynchronously}</li>
+ * <li>{@code spring.session.hazelcast.events.dropped} - number of session events dropped because the queue was
+ * full</li>
+ * </ul>
+ * Example usage:
+ * <pre>{@code
+ * new HazelcastSessionRepositoryMetrics(sessionRepository).bindTo(meterRegistry);
+ * }</pre>
+ * A repository can be bound to a single registry only, binding again replaces the previous meters.
+ *
+ * @since 4.1.0
+ */
+public class HazelcastSessionRepositoryMetrics implements MeterBinder {
+
+    private static final String PREFIX = "spring.session.hazelcast";
+
+    private final HazelcastIndexedSessionRepository repository;
+
+    /**
+     * Creates the binder for given repository.
+     * @param repository the repository to instrument
+     */
+    public HazelcastSessionRepositoryMetrics(@NonNull HazelcastIndexedSessionRepository repository) {
+        Assert.notNull(repository, "repository must not be null");
+        this.repository = repository;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Assert.notNull(registry, "registry must not be null");
+        Tags tags = Tags.of(Tag.of("map", this.repository.getSessionMapName()));
+        Gauge.builder(PREFIX + ".events.queued", this.repository, HazelcastIndexedSessionRepository::eventQueueSize)
+                .description("Number of session events waiting to be published asynchronously")
+                .tags(tags)
+                .register(registry);
+        this.repository.setMetricsRecorder(new MicrometerRecorder(registry, tags));
+    }
+
+    private static final class MicrometerRecorder implements SessionRepositoryMetricsRecorder {
+
+        private final Map<SaveOperation, Timer> saveTimers = new EnumMap<>(SaveOperation.class);
+
+        private final Map<FindResult, Timer> findTimers = new EnumMap<>(FindResult.class);
+
+        private final Timer deleteTimer;
+
+        private final Timer findByIndexTimer;
+
+        private final Timer findSummariesByIndexTimer;
+
+        private final DistributionSummary sessionSize;
+
+        private final DistributionSummary attributeSize;
+
+        private final Counter droppedEvents;
+
+        MicrometerRecorder(MeterRegistry registry, Tags tags) {
+            for (SaveOperation operation : SaveOperation.values()) {
+                this.saveTimers.put(operation, Timer.builder(PREFIX + ".save")
+                        .description("Time of session saves, per executed operation")
+                        .tags(tags)
+                        .tag("operation", operation.name().toLowerCase())
+                        .register(registry));
+            }
+            for (FindResult result : FindResult.values()) {
+                this.findTimers.put(result, Timer.builder(PREFIX + ".find")
+                        .description("Time of session lookups by id, per result")
+                        .tags(tags)
+                        .tag("result", result.name().toLowerCase())
+                        .register(registry));
+            }
+            this.deleteTimer = Timer.builder(PREFIX + ".delete")
+                    .description("Time of session deletions by id")
+                    .tags(tags)
+                    .register(registry);
+            this.findByIndexTimer = Timer.builder(PREFIX + ".find.by.index")
+                    .description("Time of session lookups by index")
+                    .tags(tags)
+                    .register(registry);
+            this.findSummariesByIndexTimer = Timer.builder(PREFIX + ".find.summaries.by.index")
+                    .description("Time of session summary lookups by index")
+                    .tags(tags)
+                    .register(registry);
+            this.sessionSize = DistributionSummary.builder(PREFIX + ".session.size")
+                    .description("Serialized size of all attributes of saved sessions")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry);
+            this.attributeSize = DistributionSummary.builder(PREFIX + ".attribute.size")
+                    .description("Serialized size of attributes written by session saves")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(registry);
+            this.droppedEvents = Counter.builder(PREFIX + ".events.dropped")
+                    .description("Number of session events dropped because the queue of pending events was full")
+                    .tags(tags)
+                    .register(registry);
+        }
+
+        @Override
+        public void recordSave(@NonNull SaveOperation operation, long durationNanos) {
+            this.saveTimers.get(operation).record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordFindById(@NonNull FindResult result, long durationNanos) {
+            this.findTimers.get(result).record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordDeleteById(long durationNanos) {
+            this.deleteTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordFindByIndex(long durationNanos) {
+            this.findByIndexTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordFindSummariesByIndex(long durationNanos) {
+            this.findSummariesByIndexTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordSessionSize(long bytes) {
+            this.sessionSize.record(bytes);
+        }
+
+        @Override
+        public void recordAttributeSize(long bytes) {
+            this.attributeSize.record(bytes);
+        }
+
+        @Override
+        public void recordEventDropped() {
+            this.droppedEvents.increment();
+        }
+    }
+}
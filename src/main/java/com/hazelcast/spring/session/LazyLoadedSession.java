@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * {@link Session} published in events received without the value of the session, loading the stored session only
+ * when anything but its id is requested. If the session is no longer stored, an empty session with the same id is
+ * used instead.
+ *
+ * @since 4.1.0
+ * @see HazelcastIndexedSessionRepository#setIncludeValuesInEvents(boolean)
+ */
+final class LazyLoadedSession implements Session {
+
+    private final String id;
+
+    private final Supplier<@Nullable Session> loader;
+
+    private Session session;
+
+    LazyLoadedSession(@NonNull String id, @NonNull Supplier<@Nullable Session> loader) {
+        this.id = id;
+        this.loader = loader;
+    }
+
+    private synchronized Session session() {
+        if (this.session == null) {
+            Session loaded = this.loader.get();
+            this.session = (loaded != null) ? loaded : new MapSession(this.id);
+        }
+        return this.session;
+    }
+
+    @Override
+    @NonNull
+    public String getId() {
+        return this.id;
+    }
+
+    @Override
+    @NonNull
+    public String changeSessionId() {
+        return session().changeSessionId();
+    }
+
+    @Override
+    @Nullable
+    public <T> T getAttribute(@NonNull String attributeName) {
+        return session().getAttribute(attributeName);
+    }
+
+    @Override
+    @NonNull
+    public Set<String> getAttributeNames() {
+        return session().getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(@NonNull String attributeName, @Nullable Object attributeValue) {
+        session().setAttribute(attributeName, attributeValue);
+    }
+
+    @Override
+    public void removeAttribute(@NonNull String attributeName) {
+        session().removeAttribute(attributeName);
+    }
+
+    @Override
+    @NonNull
+    public Instant getCreationTime() {
+        return session().getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(@NonNull Instant lastAccessedTime) {
+        session().setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    @NonNull
+    public Instant getLastAccessedTime() {
+        return session().getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(@NonNull Duration interval) {
+        session().setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    @NonNull
+    public Duration getMaxInactiveInterval() {
+        return session().getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return session().isExpired();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of sessions recently read or written by this node.
+ * <p>
+ * Cache holds {@link BackingMapSession#serializedCopy() serialized copies} only, so modifications done by the
+ * callers to the sessions they got from the repository are never visible in the cache before they are saved.
+ * Entries are not validated by the cache itself, it's the responsibility of {@link HazelcastIndexedSessionRepository}
+ * to compare their {@link BackingMapSession#getVersion() version} with the stored one.
+ *
+ * @since 4.1.0
+ */
+final class LocalSessionCache {
+
+    private final Map<String, BackingMapSession> sessions;
+
+    LocalSessionCache(int maxSize) {
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BackingMapSession> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached copy of the session. The returned instance is shared, callers must not modify it.
+     */
+    @Nullable
+    synchronized BackingMapSession get(@NonNull String id) {
+        return this.sessions.get(id);
+    }
+
+    void put(@NonNull BackingMapSession session) {
+        BackingMapSession copy = session.serializedCopy();
+        synchronized (this) {
+            this.sessions.put(copy.getId(), copy);
+        }
+    }
+
+    synchronized void invalidate(@NonNull String id) {
+        this.sessions.remove(id);
+    }
+
+    synchronized int size() {
+        return this.sessions.size();
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.IMap;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+
+import org.jspecify.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.session.DelegatingIndexResolver;
+import org.springframework.session.IndexResolver;
+import org.springframework.session.PrincipalNameIndexResolver;
+import org.springframework.session.ReactiveSessionRepository;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.SessionIdGenerator;
+import org.springframework.session.UuidSessionIdGenerator;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link ReactiveSessionRepository} implementation that stores sessions in Hazelcast's distributed {@link IMap},
+ * using its asynchronous API.
+ * <p>
+ * Sessions are stored in the same format as by {@link HazelcastIndexedSessionRepository}, so both repositories
+ * can share the same map. An example of how to create a new instance can be seen below:
+ *
+ * <pre>{@code
+ * Config config = new Config();
+ *
+ * // ... configure Hazelcast ...
+ * HazelcastSessionConfiguration.applySerializationConfig(config);
+ *
+ * HazelcastInstance hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+ *
+ * ReactiveHazelcastSessionRepository sessionRepository =
+ *         new ReactiveHazelcastSessionRepository(hazelcastInstance);
+ * sessionRepository.afterPropertiesSet();
+ * }</pre>
+ *
+ * Unlike {@link HazelcastIndexedSessionRepository}, this implementation does not publish session events.
+ *
+ * @since 4.1.0
+ */
+public class ReactiveHazelcastSessionRepository
+        implements ReactiveSessionRepository<ReactiveHazelcastSessionRepository.HazelcastSession>, InitializingBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveHazelcastSessionRepository.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private Duration defaultMaxInactiveInterval = BackingMapSession.DEFAULT_MAX_INACTIVE_INTERVAL;
+
+    private IndexResolver<Session> indexResolver = new DelegatingIndexResolver<>(new PrincipalNameIndexResolver<>());
+
+    private String sessionMapName = HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME;
+
+    private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
+
+    /**
+     * See {@link HazelcastIndexedSessionRepository#setDeployedOnAllMembers(boolean)}.
+     */
+    private volatile boolean deployedOnAllMembers = true;
+
+    private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
+
+    @NonNull
+    private SessionMapCustomizer sessionMapConfigCustomizer = SessionMapCustomizer.noop();
+
+    private boolean sessionMapAutoconfigurationEnabled = true;
+
+    private IMap<String, BackingMapSession> sessions;
+
+    private SerializationService serializationService;
+
+    /**
+     * Create a new {@link ReactiveHazelcastSessionRepository} instance.
+     * @param hazelcastInstance the {@link HazelcastInstance} to use for managing sessions
+     */
+    public ReactiveHazelcastSessionRepository(@NonNull HazelcastInstance hazelcastInstance) {
+        Assert.notNull(hazelcastInstance, "HazelcastInstance must not be null");
+        this.hazelcastInstance = hazelcastInstance;
+        if (hazelcastInstance instanceof SerializationServiceSupport sss) {
+            // can be a mock for tests
+            this.serializationService = sss.getSerializationService();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (this.sessionMapAutoconfigurationEnabled) {
+            HazelcastIndexedSessionRepository.configureSessionMap(this.hazelcastInstance, this.sessionMapName,
+                                                                  this.sessionMapConfigCustomizer);
+        }
+        this.sessions = this.hazelcastInstance.getMap(this.sessionMapName);
+    }
+
+    /**
+     * Set the maximum inactive interval between requests before newly created sessions will be invalidated.
+     * A negative time indicates that the session will never time out. The default is 30 minutes.
+     * @param defaultMaxInactiveInterval the default maxInactiveInterval
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setDefaultMaxInactiveInterval(@NonNull Duration defaultMaxInactiveInterval) {
+        Assert.notNull(defaultMaxInactiveInterval, "defaultMaxInactiveInterval must not be null");
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        return this;
+    }
+
+    /**
+     * Set the {@link IndexResolver} to use.
+     * @param indexResolver the index resolver
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setIndexResolver(@NonNull IndexResolver<Session> indexResolver) {
+        Assert.notNull(indexResolver, "indexResolver cannot be null");
+        this.indexResolver = indexResolver;
+        return this;
+    }
+
+    /**
+     * Set the name of map used to store sessions.
+     * @param sessionMapName the session map name
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setSessionMapName(@NonNull String sessionMapName) {
+        Assert.hasText(sessionMapName, "Map name must not be empty");
+        this.sessionMapName = sessionMapName;
+        return this;
+    }
+
+    /**
+     * Set the save mode.
+     * @param saveMode the save mode
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setSaveMode(@NonNull SaveMode saveMode) {
+        Assert.notNull(saveMode, "saveMode must not be null");
+        this.saveMode = saveMode;
+        return this;
+    }
+
+    /**
+     * See {@link HazelcastIndexedSessionRepository#setDeployedOnAllMembers(boolean)}.
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setDeployedOnAllMembers(boolean deployedOnAllMembers) {
+        this.deployedOnAllMembers = deployedOnAllMembers;
+        return this;
+    }
+
+    /**
+     * Set the {@link SessionIdGenerator} to use to generate session ids.
+     * @param sessionIdGenerator the {@link SessionIdGenerator} to use
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setSessionIdGenerator(@NonNull SessionIdGenerator sessionIdGenerator) {
+        Assert.notNull(sessionIdGenerator, "sessionIdGenerator cannot be null");
+        this.sessionIdGenerator = sessionIdGenerator;
+        return this;
+    }
+
+    /**
+     * Allows customization of {@link IMap} storing session information.
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository setSessionMapConfigCustomizer(@NonNull SessionMapCustomizer sessionMapConfigCustomizer) {
+        Assert.notNull(sessionMapConfigCustomizer, "sessionMapConfigCustomizer must not be null");
+        this.sessionMapConfigCustomizer = sessionMapConfigCustomizer;
+        return this;
+    }
+
+    /**
+     * Disables autoconfiguration of sessions' {@link IMap} index.
+     * @return this for fluent API
+     */
+    @NonNull
+    public ReactiveHazelcastSessionRepository disableSessionMapAutoConfiguration() {
+        this.sessionMapAutoconfigurationEnabled = false;
+        this.sessionMapConfigCustomizer = SessionMapCustomizer.noop();
+        return this;
+    }
+
+    /**
+     * Replaces {@link SerializationService} that we got from {@link HazelcastInstance}.
+     */
+    void setSerializationService(@NonNull SerializationService serializationService) {
+        Assert.notNull(serializationService, "serializationService must not be null");
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    @NonNull
+    public Mono<HazelcastSession> createSession() {
+        return Mono.fromSupplier(() -> {
+            BackingMapSession cached = new BackingMapSession(this.sessionIdGenerator);
+            cached.setMaxInactiveInterval(this.defaultMaxInactiveInterval);
+            return new HazelcastSession(cached, true);
+        });
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> save(@NonNull HazelcastSession session) {
+        return Mono.defer(() -> {
+            final String sessionId = session.getId();
+            final long ttlSeconds = session.getMaxInactiveInterval().getSeconds();
+            session.prepareAttributesSerializedForm(this.serializationService, null, 0, false);
+            if (session.isNew) {
+                return Mono.fromCompletionStage(this.sessions.setAsync(sessionId, session.getDelegate(), ttlSeconds,
+                                                                       TimeUnit.SECONDS));
+            }
+            if (session.sessionIdChanged) {
+                final String originalId = session.originalId;
+                session.getDelegate().incrementVersion();
+                // the original entry is deleted only once the new one is stored, so a failed write never loses
+                // the session
+                return Mono.fromCompletionStage(this.sessions.setAsync(sessionId, session.getDelegate(), ttlSeconds,
+                                                                       TimeUnit.SECONDS))
+                        .then(Mono.fromCompletionStage(() -> this.sessions.deleteAsync(originalId)))
+                        .then();
+            }
+            if (session.hasChanges()) {
+                SessionUpdateEntryProcessor entryProcessor = SessionUpdateEntryProcessor.of(session);
+                if (this.deployedOnAllMembers) {
+                    return submitToKey(sessionId, entryProcessor)
+                            .onErrorResume(ReactiveHazelcastSessionRepository::isSerializationError, error -> {
+                                this.deployedOnAllMembers = false;
+                                return updateWithLock(sessionId, entryProcessor, ttlSeconds);
+                            });
+                }
+                return updateWithLock(sessionId, entryProcessor, ttlSeconds);
+            }
+            return Mono.empty();
+        }).then(Mono.fromRunnable(session::clearChangeFlags));
+    }
+
+    @Override
+    @NonNull
+    public Mono<HazelcastSession> findById(@NonNull String id) {
+        return Mono.fromCompletionStage(() -> this.sessions.getAsync(id))
+                .flatMap(saved -> {
+                    if (saved.isExpired()) {
+                        return deleteById(saved.getId()).then(Mono.empty());
+                    }
+                    return Mono.just(new HazelcastSession(saved, false));
+                });
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> deleteById(@NonNull String id) {
+        return Mono.fromCompletionStage(() -> this.sessions.deleteAsync(id)).then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Void> submitToKey(String sessionId, SessionUpdateEntryProcessor entryProcessor) {
+        EntryProcessor<String, BackingMapSession, Object> processor = entryProcessor;
+        return Mono.fromCompletionStage(() -> this.sessions.submitToKey(sessionId, processor)).then();
+    }
+
+    /**
+     * Slow path, used if this library is not deployed on all members. Lock is owned by a thread, so the whole
+     * operation runs on a single thread of {@link Schedulers#boundedElastic()}.
+     */
+    private Mono<Void> updateWithLock(String sessionId, SessionUpdateEntryProcessor entryProcessor, long ttlSeconds) {
+        return Mono.<Void>fromRunnable(() -> {
+            this.sessions.lock(sessionId);
+            try {
+                BackingMapSession mapSession = this.sessions.get(sessionId);
+                if (mapSession != null) {
+                    entryProcessor.processMapSession(mapSession);
+                    this.sessions.set(sessionId, mapSession, ttlSeconds, TimeUnit.SECONDS);
+                }
+            } finally {
+                this.sessions.unlock(sessionId);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static boolean isSerializationError(Throwable error) {
+        Throwable cause = (error instanceof CompletionException) ? error.getCause() : error;
+        if (cause instanceof HazelcastSerializationException) {
+            LOGGER.debug("Session update entry processor cannot be used, falling back to lock-get-set", cause);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * A custom implementation of {@link Session} that uses a {@link BackingMapSession} as the
+     * basis for its mapping. It keeps track if changes have been made since last save.
+     */
+    public final class HazelcastSession extends AbstractHazelcastSession {
+
+        HazelcastSession(@NonNull BackingMapSession cached, boolean isNew) {
+            super(cached, isNew, saveMode);
+        }
+
+        @Override
+        SaveMode saveMode() {
+            return saveMode;
+        }
+
+        @Override
+        SerializationService serializationService() {
+            return serializationService;
+        }
+
+        @Override
+        IndexResolver<Session> indexResolver() {
+            return indexResolver;
+        }
+
+        @Override
+        String generateSessionId() {
+            return sessionIdGenerator.generate();
+        }
+    }
+}
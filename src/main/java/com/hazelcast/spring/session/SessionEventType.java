@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.springframework.session.events.SessionCreatedEvent;
+import org.springframework.session.events.SessionDeletedEvent;
+import org.springframework.session.events.SessionExpiredEvent;
+
+/**
+ * Type of session events published by {@link HazelcastIndexedSessionRepository}.
+ *
+ * @since 4.1.0
+ * @see HazelcastIndexedSessionRepository#setSessionEventTypes
+ */
+public enum SessionEventType {
+
+    /**
+     * {@link SessionCreatedEvent}, published when a session is added to the session map.
+     */
+    CREATED,
+
+    /**
+     * {@link SessionDeletedEvent}, published when a session is removed from the session map.
+     */
+    DELETED,
+
+    /**
+     * {@link SessionExpiredEvent}, published when a session expires or is evicted from the session map.
+     */
+    EXPIRED
+}
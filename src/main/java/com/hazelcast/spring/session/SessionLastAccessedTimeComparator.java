@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.spring.session.serialization.HzSSSerializerHook;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Orders session map entries by {@link BackingMapSession#getLastAccessedTime() last accessed time}, least recently
+ * accessed first, and by session id if the times are equal, so that pages of a
+ * {@link com.hazelcast.query.PagingPredicate PagingPredicate} do not overlap.
+ * <p>
+ * Comparator of a {@code PagingPredicate} runs on the members, so this library has to be deployed on them.
+ *
+ * @since 4.1.0
+ */
+@SuppressWarnings("rawtypes")
+public class SessionLastAccessedTimeComparator implements Comparator<Map.Entry>, IdentifiedDataSerializable {
+
+    @Override
+    public int compare(Map.Entry first, Map.Entry second) {
+        int result = lastAccessedTime(first.getValue()).compareTo(lastAccessedTime(second.getValue()));
+        return (result != 0) ? result : ((String) first.getKey()).compareTo((String) second.getKey());
+    }
+
+    private static Instant lastAccessedTime(Object value) {
+        if (value instanceof BackingMapSession session) {
+            return session.getLastAccessedTime();
+        }
+        // case where the schema of the object was registered by a client, but server does not have CompactSerializer
+        // instances registered. In such cases, object will be represented as GenericRecord
+        GenericRecord gr = (GenericRecord) value;
+        if (gr.getFieldKind(HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD) == FieldKind.INT64) {
+            return Instant.ofEpochMilli(gr.getInt64(HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD));
+        }
+        // layout used before 4.1
+        return Instant.ofEpochSecond(gr.getInt64(HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_SECONDS_FIELD),
+                                     gr.getInt32(HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_NANOS_FIELD));
+    }
+
+    @Override
+    public int getFactoryId() {
+        return HzSSSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return HzSSSerializerHook.SESSION_LAST_ACCESSED_TIME_COMPARATOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) {
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) {
+    }
+}
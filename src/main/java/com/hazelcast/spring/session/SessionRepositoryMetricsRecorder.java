@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Receives measurements of {@link HazelcastIndexedSessionRepository} operations.
+ * <p>
+ * Kept free of any metrics library types, so that the repository does not depend on one;
+ * see {@link HazelcastSessionRepositoryMetrics} for the Micrometer implementation.
+ *
+ * @since 4.1.0
+ */
+interface SessionRepositoryMetricsRecorder {
+
+    /**
+     * Recorder ignoring all measurements, used when no metrics are bound.
+     */
+    SessionRepositoryMetricsRecorder NOOP = new SessionRepositoryMetricsRecorder() {
+    };
+
+    /**
+     * Branch of {@link HazelcastIndexedSessionRepository#save} that was taken.
+     */
+    enum SaveOperation {
+        /** New session stored as a whole. */
+        NEW,
+        /** Session stored as a whole under a changed id. */
+        ID_CHANGED,
+        /** Changes applied by {@link SessionUpdateEntryProcessor}. */
+        DELTA,
+        /** Changes applied by {@code lock}-{@code get}-{@code set}, library is not deployed on all members. */
+        FALLBACK
+    }
+
+    /**
+     * Result of {@link HazelcastIndexedSessionRepository#findById}.
+     */
+    enum FindResult {
+        HIT,
+        MISS,
+        EXPIRED
+    }
+
+    default void recordSave(@NonNull SaveOperation operation, long durationNanos) {
+    }
+
+    default void recordFindById(@NonNull FindResult result, long durationNanos) {
+    }
+
+    default void recordDeleteById(long durationNanos) {
+    }
+
+    default void recordFindByIndex(long durationNanos) {
+    }
+
+    default void recordFindSummariesByIndex(long durationNanos) {
+    }
+
+    /**
+     * Records size of serialized attributes of a saved session.
+     */
+    default void recordSessionSize(long bytes) {
+    }
+
+    /**
+     * Records size of a single serialized attribute written by a save.
+     */
+    default void recordAttributeSize(long bytes) {
+    }
+
+    /**
+     * Records a session event dropped because the queue of asynchronously published events was full.
+     */
+    default void recordEventDropped() {
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Metadata of a stored session, without any of its attributes.
+ *
+ * @since 4.1.0
+ * @see HazelcastIndexedSessionRepository#findSummariesByIndexNameAndIndexValue(String, String)
+ */
+public final class SessionSummary {
+
+    private final String id;
+
+    private final Instant creationTime;
+
+    private final Instant lastAccessedTime;
+
+    private final Duration maxInactiveInterval;
+
+    SessionSummary(@NonNull String id, @NonNull Instant creationTime, @NonNull Instant lastAccessedTime,
+                   @NonNull Duration maxInactiveInterval) {
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    @NonNull
+    public String getId() {
+        return this.id;
+    }
+
+    @NonNull
+    public Instant getCreationTime() {
+        return this.creationTime;
+    }
+
+    @NonNull
+    public Instant getLastAccessedTime() {
+        return this.lastAccessedTime;
+    }
+
+    @NonNull
+    public Duration getMaxInactiveInterval() {
+        return this.maxInactiveInterval;
+    }
+
+    public boolean isExpired() {
+        return isExpired(Instant.now());
+    }
+
+    boolean isExpired(Instant now) {
+        if (this.maxInactiveInterval.isNegative()) {
+            return false;
+        }
+        return now.minus(this.maxInactiveInterval).compareTo(this.lastAccessedTime) >= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionSummary that)) {
+            return false;
+        }
+        return this.id.equals(that.id) && this.creationTime.equals(that.creationTime)
+                && this.lastAccessedTime.equals(that.lastAccessedTime)
+                && this.maxInactiveInterval.equals(that.maxInactiveInterval);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id, this.creationTime, this.lastAccessedTime, this.maxInactiveInterval);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSummary{id='" + this.id + "', creationTime=" + this.creationTime + ", lastAccessedTime="
+                + this.lastAccessedTime + ", maxInactiveInterval=" + this.maxInactiveInterval + '}';
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.ExtendedMapEntry;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
 import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
@@ -30,10 +31,8 @@ import com.hazelcast.spring.session.serialization.InstantSerializer;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -58,12 +57,19 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
      */
     Map<String, byte[]> delta;
 
+    /**
+     * Mapping of {@code attribute name} -> {@link AttributeCodec#id() codec id} for attributes in {@link #delta}
+     * which are encoded, {@code null} if there is no such attribute. Not part of the wire format of this class,
+     * sent only by {@link EncodedSessionUpdateEntryProcessor}.
+     */
+    Map<String, Byte> deltaCodecs;
+
     String principalName;
 
     public SessionUpdateEntryProcessor() {
     }
 
-    SessionUpdateEntryProcessor(HazelcastIndexedSessionRepository.HazelcastSession session) {
+    SessionUpdateEntryProcessor(AbstractHazelcastSession session) {
         if (session.lastAccessedTimeChanged) {
             setLastAccessedTime(session.getLastAccessedTime());
         }
@@ -71,14 +77,26 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
             setMaxInactiveInterval(session.getMaxInactiveInterval());
         }
         if (!session.delta.isEmpty()) {
-            delta = new HashMap<>(session.delta.size());
-            session.delta.forEach((k, v) -> delta.put(k, v == null ? null : v.objectBytes()));
+            setDelta(session.delta);
         }
         if (session.principalNameChanged()) {
             this.principalName = session.getDelegate().getPrincipalName();
         }
     }
 
+    /**
+     * Returns the processor applying changes of the given session, {@link EncodedSessionUpdateEntryProcessor} if
+     * some of the changed attributes are encoded.
+     */
+    static SessionUpdateEntryProcessor of(AbstractHazelcastSession session) {
+        for (AttributeValue value : session.delta.values()) {
+            if (value != null && value.codecId() != AttributeValue.NO_CODEC) {
+                return new EncodedSessionUpdateEntryProcessor(session);
+            }
+        }
+        return new SessionUpdateEntryProcessor(session);
+    }
+
     @Override
     public Object process(Map.Entry entry) {
         if (entry.getValue() instanceof GenericRecord gr) {
@@ -103,41 +121,47 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
     private Boolean processGenericRecord(Map.Entry entry, GenericRecord gr) {
         GenericRecordBuilder builder = gr.newBuilderWithClone();
 
-        long ttl = gr.getInt64("maxInactiveInterval_seconds");
-        if (this.lastAccessedTime != null) {
-            builder.setInt64("lastAccessedTime_seconds", this.lastAccessedTime.getEpochSecond());
-            builder.setInt32("lastAccessedTime_nanos", this.lastAccessedTime.getNano());
+        // the field cannot be added to records stored before 4.1, they stay unversioned
+        if (gr.getFieldKind(HazelcastSessionCompactSerializer.VERSION_FIELD) == FieldKind.INT64) {
+            long version = gr.getInt64(HazelcastSessionCompactSerializer.VERSION_FIELD);
+            if (version != BackingMapSession.UNVERSIONED) {
+                builder.setInt64(HazelcastSessionCompactSerializer.VERSION_FIELD, version + 1);
+            }
         }
-        if (this.maxInactiveInterval != null) {
-            ttl = this.maxInactiveInterval.getSeconds();
-            builder.setInt64("maxInactiveInterval_seconds", this.maxInactiveInterval.getSeconds());
-            builder.setInt32("maxInactiveInterval_nanos", this.maxInactiveInterval.getNano());
+        long ttl;
+        if (gr.getFieldKind(HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD) == FieldKind.INT64) {
+            ttl = Duration.ofMillis(gr.getInt64(HazelcastSessionCompactSerializer.MAX_INACTIVE_INTERVAL_FIELD)).getSeconds();
+            if (this.lastAccessedTime != null) {
+                builder.setInt64(HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD,
+                                 this.lastAccessedTime.toEpochMilli());
+            }
+            if (this.maxInactiveInterval != null) {
+                ttl = this.maxInactiveInterval.getSeconds();
+                builder.setInt64(HazelcastSessionCompactSerializer.MAX_INACTIVE_INTERVAL_FIELD,
+                                 this.maxInactiveInterval.toMillis());
+            }
+        } else {
+            // layout used before 4.1
+            ttl = gr.getInt64(HazelcastSessionCompactSerializer.LEGACY_MAX_INACTIVE_INTERVAL_SECONDS_FIELD);
+            if (this.lastAccessedTime != null) {
+                builder.setInt64(HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_SECONDS_FIELD,
+                                 this.lastAccessedTime.getEpochSecond());
+                builder.setInt32(HazelcastSessionCompactSerializer.LEGACY_LAST_ACCESSED_TIME_NANOS_FIELD,
+                                 this.lastAccessedTime.getNano());
+            }
+            if (this.maxInactiveInterval != null) {
+                ttl = this.maxInactiveInterval.getSeconds();
+                builder.setInt64(HazelcastSessionCompactSerializer.LEGACY_MAX_INACTIVE_INTERVAL_SECONDS_FIELD,
+                                 this.maxInactiveInterval.getSeconds());
+                builder.setInt32(HazelcastSessionCompactSerializer.LEGACY_MAX_INACTIVE_INTERVAL_NANOS_FIELD,
+                                 this.maxInactiveInterval.getNano());
+            }
         }
         if (this.delta != null) {
-            List<String> attributeNames = toList(gr.getArrayOfString("attributeNames"));
-            List<GenericRecord> attributeValues = toList(gr.getArrayOfGenericRecord("attributeValues"));
-
-            for (final Map.Entry<String, byte[]> attribute : this.delta.entrySet()) {
-                byte[] value = attribute.getValue();
-                if (attribute.getValue() != null) {
-                    addValue(value, attribute.getKey(), attributeNames, attributeValues);
-
-                    if (attribute.getKey().equals(PRINCIPAL_NAME_ATTRIBUTE) || attribute.getKey().equals(PRINCIPAL_NAME_INDEX_NAME)) {
-                        addValue(value, PRINCIPAL_NAME_ATTRIBUTE, attributeNames, attributeValues);
-                        addValue(value, PRINCIPAL_NAME_INDEX_NAME, attributeNames, attributeValues);
-
-                        builder.setString("principalName", principalName);
-                    }
-                } else {
-                    int index = findIndex(attribute.getKey(), attributeNames);
-                    if (index != -1) {
-                        attributeNames.remove(index);
-                        attributeValues.remove(index);
-                    }
-                }
-            }
-            builder.setArrayOfString("attributeNames", attributeNames.toArray(new String[0]));
-            builder.setArrayOfGenericRecord("attributeValues", attributeValues.toArray(new GenericRecord[0]));
+            applyDelta(builder, gr.getArrayOfString("attributeNames"), gr.getArrayOfGenericRecord("attributeValues"));
+        }
+        if (this.principalName != null) {
+            builder.setString("principalName", this.principalName);
         }
 
         if (ttl == -1) {
@@ -148,30 +172,49 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
         return Boolean.TRUE;
     }
 
-    private void addValue(byte[] valueBytes,
-                          String attributeName,
-                          List<String> attributeNames,
-                          List<GenericRecord> attributeValues) {
-        int index = findIndex(attributeName, attributeNames);
-        if (index != -1) {
-            attributeValues.set(index, AttributeValue.serializedGenericRecord(valueBytes));
-        } else {
-            attributeNames.add(attributeName);
-            attributeValues.add(AttributeValue.serializedGenericRecord(valueBytes));
+    /**
+     * Merges {@link #delta} into the stored attributes. Stored attributes are indexed by name once, so the merge is
+     * linear in the number of attributes and keeps their order; new attributes are appended.
+     */
+    private void applyDelta(GenericRecordBuilder builder, String[] storedNames, GenericRecord[] storedValues) {
+        int storedCount = (storedNames == null) ? 0 : storedNames.length;
+        Map<String, GenericRecord> attributes = new LinkedHashMap<>((int) ((storedCount + this.delta.size()) / 0.75f) + 2);
+        for (int i = 0; i < storedCount; i++) {
+            attributes.put(storedNames[i], storedValues[i]);
+        }
+        for (Map.Entry<String, byte[]> attribute : this.delta.entrySet()) {
+            String name = attribute.getKey();
+            byte[] value = attribute.getValue();
+            if (value == null) {
+                attributes.remove(name);
+            } else if (name.equals(PRINCIPAL_NAME_ATTRIBUTE) || name.equals(PRINCIPAL_NAME_INDEX_NAME)) {
+                GenericRecord principal = AttributeValue.serializedGenericRecord(value, codecId(name));
+                attributes.put(PRINCIPAL_NAME_ATTRIBUTE, principal);
+                attributes.put(PRINCIPAL_NAME_INDEX_NAME, principal);
+            } else {
+                attributes.put(name, AttributeValue.serializedGenericRecord(value, codecId(name)));
+            }
         }
-    }
 
-    private <T> List<T> toList(T[] array) {
-        if (array == null) {
-            return new ArrayList<>();
+        String[] names = new String[attributes.size()];
+        GenericRecord[] values = new GenericRecord[names.length];
+        int i = 0;
+        for (Map.Entry<String, GenericRecord> attribute : attributes.entrySet()) {
+            names[i] = attribute.getKey();
+            values[i] = withCodecField(attribute.getValue());
+            i++;
         }
-        ArrayList<T> list = new ArrayList<>(array.length);
-        list.addAll(Arrays.asList(array));
-        return list;
+        builder.setArrayOfString("attributeNames", names);
+        builder.setArrayOfGenericRecord("attributeValues", values);
     }
 
-    private int findIndex(String key, List<String> attributeNames) {
-        return attributeNames.indexOf(key);
+    /**
+     * Values stored before 4.1 do not have the codec field, all items of the array must have the same schema though.
+     */
+    private static GenericRecord withCodecField(GenericRecord value) {
+        return value.getFieldKind(AttributeValueCompactSerializer.CODEC_FIELD) == FieldKind.INT8
+                ? value
+                : AttributeValue.serializedGenericRecord(value.getArrayOfInt8(AttributeValueCompactSerializer.OBJECT_BYTES_FIELD));
     }
 
     void processMapSession(BackingMapSession value) {
@@ -184,7 +227,8 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
         if (this.delta != null) {
             for (final Map.Entry<String, byte[]> attribute : this.delta.entrySet()) {
                 if (attribute.getValue() != null) {
-                    value.setSerializedAttribute(attribute.getKey(), AttributeValue.serialized(attribute.getValue()));
+                    value.setSerializedAttribute(attribute.getKey(),
+                                                 AttributeValue.serialized(attribute.getValue(), codecId(attribute.getKey())));
                 } else {
                     value.removeAttribute(attribute.getKey());
                 }
@@ -193,6 +237,7 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
         if (principalName != null) {
             value.setPrincipalName(principalName);
         }
+        value.incrementVersion();
     }
 
     void setLastAccessedTime(Instant lastAccessedTime) {
@@ -205,11 +250,26 @@ public class SessionUpdateEntryProcessor implements EntryProcessor, IdentifiedDa
 
     void setDelta(Map<String, AttributeValue> delta) {
         Map<String, byte[]> onlyByte = new HashMap<>(delta.size());
+        Map<String, Byte> codecs = null;
         for (Map.Entry<String, AttributeValue> entry : delta.entrySet()) {
             AttributeValue value = entry.getValue();
             onlyByte.put(entry.getKey(), value == null ? null : value.objectBytes());
+            if (value != null && value.codecId() != AttributeValue.NO_CODEC) {
+                if (codecs == null) {
+                    codecs = new HashMap<>();
+                }
+                codecs.put(entry.getKey(), value.codecId());
+            }
         }
         this.delta = onlyByte;
+        this.deltaCodecs = codecs;
+    }
+
+    private byte codecId(String attributeName) {
+        if (this.deltaCodecs == null) {
+            return AttributeValue.NO_CODEC;
+        }
+        return this.deltaCodecs.getOrDefault(attributeName, AttributeValue.NO_CODEC);
     }
 
     @Override
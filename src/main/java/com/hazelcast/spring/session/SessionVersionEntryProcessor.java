@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.FieldKind;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.spring.session.serialization.HzSSSerializerHook;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Read-only {@link EntryProcessor} returning {@link BackingMapSession#getVersion() version} of the stored session,
+ * or {@code null} if there is no such session. Sessions stored before 4.1 without the version field are
+ * {@link BackingMapSession#UNVERSIONED unversioned}.
+ * <p>
+ * Used to validate sessions cached locally by {@link HazelcastIndexedSessionRepository} without transferring
+ * the whole session.
+ *
+ * @since 4.1.0
+ */
+@SuppressWarnings("rawtypes")
+public class SessionVersionEntryProcessor implements EntryProcessor, ReadOnly, IdentifiedDataSerializable {
+
+    @Override
+    @Nullable
+    public Long process(Map.Entry entry) {
+        Object value = entry.getValue();
+        if (value instanceof BackingMapSession session) {
+            return session.getVersion();
+        }
+        if (value instanceof GenericRecord gr) {
+            // case where the schema of the object was registered by a client, but server does not have CompactSerializer
+            // instances registered. In such cases, object will be represented as GenericRecord
+            return gr.getFieldKind(HazelcastSessionCompactSerializer.VERSION_FIELD) == FieldKind.INT64
+                    ? gr.getInt64(HazelcastSessionCompactSerializer.VERSION_FIELD)
+                    : BackingMapSession.UNVERSIONED;
+        }
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public EntryProcessor getBackupProcessor() {
+        return null;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return HzSSSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return HzSSSerializerHook.SESSION_VERSION_ENTRY_PROCESSOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) {
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) {
+    }
+}
@@ -25,6 +25,7 @@ import java.lang.annotation.Target;
 import com.hazelcast.core.HazelcastInstance;
 
 import com.hazelcast.map.IMap;
+import com.hazelcast.spring.session.SessionEventType;
 import org.springframework.context.annotation.Import;
 import org.springframework.session.FlushMode;
 import org.springframework.session.MapSession;
@@ -110,4 +111,24 @@ public @interface EnableHazelcastHttpSession {
      */
     boolean disableSessionMapAutoconfiguration() default false;
 
+    /**
+     * Granularity of last accessed time updates in seconds. Saving a session whose only change is an update of
+     * its last accessed time by less than this value will not write anything to Hazelcast. The default is 0,
+     * which means that every update is written.
+     * @return the touch granularity in seconds
+     * @since 4.1.0
+     * @see com.hazelcast.spring.session.HazelcastIndexedSessionRepository#setTouchGranularity
+     */
+    int touchGranularityInSeconds() default 0;
+
+    /**
+     * Types of session events to publish. Hazelcast sends only the events needed to publish them, so applications
+     * which don't consume some of the events can save the listener traffic. By default, all events are published.
+     * @return the types of session events to publish
+     * @since 4.1.0
+     * @see com.hazelcast.spring.session.HazelcastIndexedSessionRepository#setSessionEventTypes
+     */
+    SessionEventType[] sessionEventTypes() default { SessionEventType.CREATED, SessionEventType.DELETED,
+            SessionEventType.EXPIRED };
+
 }
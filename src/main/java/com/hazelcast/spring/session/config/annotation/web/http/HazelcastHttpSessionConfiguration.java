@@ -17,8 +17,11 @@
 package com.hazelcast.spring.session.config.annotation.web.http;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.hazelcast.core.HazelcastInstance;
@@ -45,6 +48,7 @@ import org.springframework.session.UuidSessionIdGenerator;
 import org.springframework.session.config.SessionRepositoryCustomizer;
 import org.springframework.session.config.annotation.web.http.SpringHttpSessionConfiguration;
 import com.hazelcast.spring.session.HazelcastIndexedSessionRepository;
+import com.hazelcast.spring.session.SessionEventType;
 import com.hazelcast.spring.session.config.annotation.SpringSessionHazelcastInstance;
 import org.springframework.session.web.http.SessionRepositoryFilter;
 import org.springframework.util.Assert;
@@ -72,6 +76,10 @@ public class HazelcastHttpSessionConfiguration implements ImportAware {
 
 	private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
 
+	private Duration touchGranularity = Duration.ZERO;
+
+	private Set<SessionEventType> sessionEventTypes = EnumSet.allOf(SessionEventType.class);
+
 	private HazelcastInstance hazelcastInstance;
 
 	private ApplicationEventPublisher applicationEventPublisher;
@@ -107,6 +115,20 @@ public class HazelcastHttpSessionConfiguration implements ImportAware {
 		this.saveMode = saveMode;
 	}
 
+	/**
+	 * @since 4.1.0
+	 */
+	public void setTouchGranularity(Duration touchGranularity) {
+		this.touchGranularity = touchGranularity;
+	}
+
+	/**
+	 * @since 4.1.0
+	 */
+	public void setSessionEventTypes(Set<SessionEventType> sessionEventTypes) {
+		this.sessionEventTypes = sessionEventTypes;
+	}
+
 	@Autowired
 	public void setHazelcastInstance(
 			@SpringSessionHazelcastInstance ObjectProvider<@NonNull HazelcastInstance> springSessionHazelcastInstance,
@@ -161,6 +183,10 @@ public class HazelcastHttpSessionConfiguration implements ImportAware {
 		this.flushMode = attributes.getEnum("flushMode");
 		this.saveMode = attributes.getEnum("saveMode");
         this.disableSessionMapAutoconfiguration = attributes.getBoolean("disableSessionMapAutoconfiguration");
+		this.touchGranularity = Duration.ofSeconds(attributes.<Integer>getNumber("touchGranularityInSeconds"));
+		SessionEventType[] eventTypes = (SessionEventType[]) attributes.get("sessionEventTypes");
+		this.sessionEventTypes = EnumSet.noneOf(SessionEventType.class);
+		this.sessionEventTypes.addAll(Arrays.asList(eventTypes));
    	}
 
 	private HazelcastIndexedSessionRepository createHazelcastIndexedSessionRepository() {
@@ -176,6 +202,8 @@ public class HazelcastHttpSessionConfiguration implements ImportAware {
 		sessionRepository.setDefaultMaxInactiveInterval(this.maxInactiveInterval);
 		sessionRepository.setFlushMode(this.flushMode);
 		sessionRepository.setSaveMode(this.saveMode);
+		sessionRepository.setTouchGranularity(this.touchGranularity);
+		sessionRepository.setSessionEventTypes(this.sessionEventTypes);
         sessionRepository.setSessionIdGenerator(this.sessionIdGenerator);
         if (this.disableSessionMapAutoconfiguration) {
             sessionRepository.disableSessionMapAutoConfiguration();
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session.config.annotation.web.server;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.hazelcast.core.HazelcastInstance;
+
+import com.hazelcast.spring.session.HazelcastIndexedSessionRepository;
+import com.hazelcast.spring.session.ReactiveHazelcastSessionRepository;
+import com.hazelcast.spring.session.SessionMapCustomizer;
+import com.hazelcast.spring.session.config.annotation.SpringSessionHazelcastInstance;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.session.IndexResolver;
+import org.springframework.session.MapSession;
+import org.springframework.session.ReactiveSessionRepository;
+import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.SessionIdGenerator;
+import org.springframework.session.UuidSessionIdGenerator;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.config.annotation.web.server.SpringWebSessionConfiguration;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.session.WebSessionManager;
+
+/**
+ * Exposes the {@link WebSessionManager} as a bean named {@code webSessionManager}, backed
+ * by {@link ReactiveHazelcastSessionRepository}. In order to use this a single
+ * {@link HazelcastInstance} must be exposed as a Bean.
+ *
+ * @since 4.1.0
+ * @see EnableHazelcastWebSession
+ */
+@Configuration(proxyBeanMethods = false)
+@Import(SpringWebSessionConfiguration.class)
+public class HazelcastWebSessionConfiguration implements ImportAware {
+
+    private Duration maxInactiveInterval = MapSession.DEFAULT_MAX_INACTIVE_INTERVAL;
+
+    private String sessionMapName = HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME;
+
+    private SaveMode saveMode = SaveMode.ON_SET_ATTRIBUTE;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private IndexResolver<Session> indexResolver;
+
+    private List<SessionRepositoryCustomizer<ReactiveHazelcastSessionRepository>> sessionRepositoryCustomizers = List.of();
+
+    private SessionIdGenerator sessionIdGenerator = UuidSessionIdGenerator.getInstance();
+
+    private boolean disableSessionMapAutoconfiguration;
+
+    private SessionMapCustomizer sessionMapCustomizer;
+
+    @Bean
+    public ReactiveSessionRepository<?> reactiveSessionRepository() {
+        return createReactiveHazelcastSessionRepository();
+    }
+
+    public void setMaxInactiveInterval(Duration maxInactiveInterval) {
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    public void setSessionMapName(String sessionMapName) {
+        this.sessionMapName = sessionMapName;
+    }
+
+    public void setSaveMode(SaveMode saveMode) {
+        this.saveMode = saveMode;
+    }
+
+    @Autowired
+    public void setHazelcastInstance(
+            @SpringSessionHazelcastInstance ObjectProvider<@NonNull HazelcastInstance> springSessionHazelcastInstance,
+            ObjectProvider<@NonNull HazelcastInstance> hazelcastInstance) {
+        HazelcastInstance hazelcastInstanceToUse = springSessionHazelcastInstance.getIfAvailable();
+        if (hazelcastInstanceToUse == null) {
+            hazelcastInstanceToUse = hazelcastInstance.getObject();
+        }
+        this.hazelcastInstance = hazelcastInstanceToUse;
+    }
+
+    @Autowired(required = false)
+    public void setIndexResolver(IndexResolver<Session> indexResolver) {
+        this.indexResolver = indexResolver;
+    }
+
+    @Autowired(required = false)
+    public void setSessionRepositoryCustomizer(
+            ObjectProvider<@NonNull SessionRepositoryCustomizer<ReactiveHazelcastSessionRepository>> sessionRepositoryCustomizers) {
+        this.sessionRepositoryCustomizers = sessionRepositoryCustomizers.orderedStream().collect(Collectors.toList());
+    }
+
+    @Autowired(required = false)
+    public void setSessionMapConfigCustomizer(@NonNull ObjectProvider<@NonNull SessionMapCustomizer> sessionMapCustomizer) {
+        Assert.notNull(sessionMapCustomizer, "sessionMapCustomizer must not be null");
+        this.sessionMapCustomizer = sessionMapCustomizer.orderedStream()
+                                                        .reduce(SessionMapCustomizer::andThen)
+                                                        .orElse(SessionMapCustomizer.noop());
+    }
+
+    @Autowired(required = false)
+    public void setSessionIdGenerator(SessionIdGenerator sessionIdGenerator) {
+        this.sessionIdGenerator = sessionIdGenerator;
+    }
+
+    @Override
+    public void setImportMetadata(AnnotationMetadata importMetadata) {
+        Map<String, Object> attributeMap = importMetadata
+            .getAnnotationAttributes(EnableHazelcastWebSession.class.getName());
+        AnnotationAttributes attributes = AnnotationAttributes.fromMap(attributeMap);
+        if (attributes == null) {
+            return;
+        }
+        this.maxInactiveInterval = Duration.ofSeconds(attributes.<Integer>getNumber("maxInactiveIntervalInSeconds"));
+        String sessionMapNameValue = attributes.getString("sessionMapName");
+        if (StringUtils.hasText(sessionMapNameValue)) {
+            this.sessionMapName = sessionMapNameValue;
+        }
+        this.saveMode = attributes.getEnum("saveMode");
+        this.disableSessionMapAutoconfiguration = attributes.getBoolean("disableSessionMapAutoconfiguration");
+    }
+
+    private ReactiveHazelcastSessionRepository createReactiveHazelcastSessionRepository() {
+        ReactiveHazelcastSessionRepository sessionRepository = new ReactiveHazelcastSessionRepository(
+                this.hazelcastInstance);
+        if (this.indexResolver != null) {
+            sessionRepository.setIndexResolver(this.indexResolver);
+        }
+        if (StringUtils.hasText(this.sessionMapName)) {
+            sessionRepository.setSessionMapName(this.sessionMapName);
+        }
+        sessionRepository.setDefaultMaxInactiveInterval(this.maxInactiveInterval);
+        sessionRepository.setSaveMode(this.saveMode);
+        sessionRepository.setSessionIdGenerator(this.sessionIdGenerator);
+        if (this.disableSessionMapAutoconfiguration) {
+            sessionRepository.disableSessionMapAutoConfiguration();
+        } else if (this.sessionMapCustomizer != null) {
+            sessionRepository.setSessionMapConfigCustomizer(this.sessionMapCustomizer);
+        }
+        this.sessionRepositoryCustomizers
+            .forEach((sessionRepositoryCustomizer) -> sessionRepositoryCustomizer.customize(sessionRepository));
+        return sessionRepository;
+    }
+
+}
@@ -19,7 +19,10 @@ package com.hazelcast.spring.session.serialization;
 import com.hazelcast.internal.serialization.DataSerializerHook;
 import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.spring.session.EncodedSessionUpdateEntryProcessor;
+import com.hazelcast.spring.session.SessionLastAccessedTimeComparator;
 import com.hazelcast.spring.session.SessionUpdateEntryProcessor;
+import com.hazelcast.spring.session.SessionVersionEntryProcessor;
 
 public class HzSSSerializerHook implements DataSerializerHook {
     // TODO reference FactoryIdHelper once 5.7 will be minimum supported version
@@ -29,6 +32,9 @@ public class HzSSSerializerHook implements DataSerializerHook {
     public static final int F_ID = FactoryIdHelper.getFactoryId(HZ_SS_DS_FACTORY, F_ID_OFFSET_HZ_SPRING_SESSION);
 
     public static final int SESSION_UPDATE_ENTRY_PROCESSOR = 1;
+    public static final int SESSION_VERSION_ENTRY_PROCESSOR = 2;
+    public static final int SESSION_LAST_ACCESSED_TIME_COMPARATOR = 4;
+    public static final int ENCODED_SESSION_UPDATE_ENTRY_PROCESSOR = 5;
 
     @Override
     public int getFactoryId() {
@@ -39,6 +45,9 @@ public class HzSSSerializerHook implements DataSerializerHook {
     public DataSerializableFactory createFactory() {
         return type -> switch (type) {
                 case SESSION_UPDATE_ENTRY_PROCESSOR -> new SessionUpdateEntryProcessor();
+                case SESSION_VERSION_ENTRY_PROCESSOR -> new SessionVersionEntryProcessor();
+                case SESSION_LAST_ACCESSED_TIME_COMPARATOR -> new SessionLastAccessedTimeComparator();
+                case ENCODED_SESSION_UPDATE_ENTRY_PROCESSOR -> new EncodedSessionUpdateEntryProcessor();
                 default -> null;
             };
     }
@@ -22,10 +22,14 @@ module com.hazelcast.spring.session {
     requires spring.session.core;
     requires org.jspecify;
     requires org.slf4j;
+    requires static reactor.core;
+    requires static micrometer.core;
+    requires static spring.web;
 
     exports com.hazelcast.spring.session;
     exports com.hazelcast.spring.session.config.annotation;
     exports com.hazelcast.spring.session.config.annotation.web.http;
+    exports com.hazelcast.spring.session.config.annotation.web.server;
 
     provides com.hazelcast.internal.serialization.DataSerializerHook
             with com.hazelcast.spring.session.serialization.HzSSSerializerHook;
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncSessionEventPublisherTest {
+
+    private final List<Object> published = new ArrayList<>();
+
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    private final ManualExecutor executor = new ManualExecutor();
+
+    @Test
+    void eventsArePublishedByExecutorInOrder() {
+        AsyncSessionEventPublisher publisher = new AsyncSessionEventPublisher(published::add, executor, 10,
+                                                                              EventOverflowPolicy.DROP,
+                                                                              dropped::incrementAndGet);
+
+        publisher.publishEvent("event1");
+        publisher.publishEvent("event2");
+
+        assertThat(published).isEmpty();
+        assertThat(publisher.queueSize()).isEqualTo(2);
+        assertThat(executor.tasks).hasSize(1);
+
+        executor.runAll();
+
+        assertThat(published).containsExactly("event1", "event2");
+        assertThat(publisher.queueSize()).isZero();
+        assertThat(dropped).hasValue(0);
+    }
+
+    @Test
+    void eventsOverCapacityAreDroppedWithDropPolicy() {
+        AsyncSessionEventPublisher publisher = new AsyncSessionEventPublisher(published::add, executor, 2,
+                                                                              EventOverflowPolicy.DROP,
+                                                                              dropped::incrementAndGet);
+
+        publisher.publishEvent("event1");
+        publisher.publishEvent("event2");
+        publisher.publishEvent("event3");
+        executor.runAll();
+
+        assertThat(published).containsExactly("event1", "event2");
+        assertThat(dropped).hasValue(1);
+    }
+
+    @Test
+    void failingListenerDoesNotStopPublishing() {
+        AsyncSessionEventPublisher publisher = new AsyncSessionEventPublisher(event -> {
+            if ("event1".equals(event)) {
+                throw new IllegalStateException("expected");
+            }
+            published.add(event);
+        }, executor, 10, EventOverflowPolicy.BLOCK, dropped::incrementAndGet);
+
+        publisher.publishEvent("event1");
+        publisher.publishEvent("event2");
+        executor.runAll();
+
+        assertThat(published).containsExactly("event2");
+    }
+
+    @Test
+    void eventsArePublishedByCallerIfExecutorRejectsTask() {
+        AsyncSessionEventPublisher publisher = new AsyncSessionEventPublisher(published::add, command -> {
+            throw new RejectedExecutionException("expected");
+        }, 1, EventOverflowPolicy.BLOCK, dropped::incrementAndGet);
+
+        publisher.publishEvent("event1");
+        publisher.publishEvent("event2");
+
+        assertThat(published).containsExactly("event1", "event2");
+        assertThat(publisher.queueSize()).isZero();
+        assertThat(dropped).hasValue(0);
+    }
+
+    @Test
+    void publishingResumesAfterOverflow() {
+        AsyncSessionEventPublisher publisher = new AsyncSessionEventPublisher(published::add, executor, 1,
+                                                                              EventOverflowPolicy.DROP,
+                                                                              dropped::incrementAndGet);
+
+        publisher.publishEvent("event1");
+        publisher.publishEvent("event2");
+        publisher.publishEvent("event3");
+        executor.runAll();
+        publisher.publishEvent("event4");
+        executor.runAll();
+
+        assertThat(published).containsExactly("event1", "event4");
+        assertThat(dropped).hasValue(2);
+    }
+
+    private static final class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
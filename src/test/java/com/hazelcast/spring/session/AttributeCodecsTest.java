@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import org.jspecify.annotations.NonNull;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class AttributeCodecsTest {
+
+    @Test
+    void builtInCodecIsKnown() {
+        AttributeCodecs.register(AttributeCodec.DEFLATE);
+
+        assertThat(AttributeCodecs.get(AttributeCodec.DEFLATE.id())).isSameAs(AttributeCodec.DEFLATE);
+    }
+
+    @Test
+    void customCodecIsKnownAfterRegistration() {
+        AttributeCodec codec = new IdentityCodec((byte) 100);
+
+        AttributeCodecs.register(codec);
+        AttributeCodecs.register(codec);
+
+        assertThat(AttributeCodecs.get((byte) 100)).isSameAs(codec);
+    }
+
+    @Test
+    void customCodecWithReservedIdIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AttributeCodecs.register(new IdentityCodec((byte) 15)))
+                .withMessageStartingWith("codec ids up to 15 are reserved for built-in codecs");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> AttributeCodecs.register(new IdentityCodec(AttributeCodec.DEFLATE.id())))
+                .withMessageStartingWith("codec ids up to 15 are reserved for built-in codecs");
+    }
+
+    @Test
+    void codecWithIdOfAnotherCodecIsRejected() {
+        AttributeCodec codec = new IdentityCodec((byte) 101);
+        AttributeCodecs.register(codec);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> AttributeCodecs.register(new IdentityCodec((byte) 101)))
+                .withMessageStartingWith("Another codec with id 101 is already registered");
+        assertThat(AttributeCodecs.get((byte) 101)).isSameAs(codec);
+    }
+
+    @Test
+    void codecIdNotPositiveIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AttributeCodecs.register(new IdentityCodec((byte) 0)))
+                .withMessage("codec id must be positive");
+        assertThatIllegalArgumentException().isThrownBy(() -> AttributeCodecs.register(new IdentityCodec((byte) -1)))
+                .withMessage("codec id must be positive");
+    }
+
+    private static final class IdentityCodec implements AttributeCodec {
+
+        private final byte id;
+
+        IdentityCodec(byte id) {
+            this.id = id;
+        }
+
+        @Override
+        public byte id() {
+            return this.id;
+        }
+
+        @Override
+        public byte @NonNull [] encode(byte @NonNull [] bytes) {
+            return bytes;
+        }
+
+        @Override
+        public byte @NonNull [] decode(byte @NonNull [] bytes) {
+            return bytes;
+        }
+    }
+}
@@ -32,6 +32,10 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static com.hazelcast.spring.session.HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME;
@@ -258,6 +262,49 @@ public class AttributeHandlingTest extends TestWithHazelcast {
                         );
     }
 
+    @Test
+    void findPrincipalSessionSummariesByIndex() {
+        // given
+        var session = repository.createSession();
+        session.setAttribute(PRINCIPAL_NAME_ATTRIBUTE, "MasterChief");
+        session.setAttribute("pojo", new CustomPojo(1, "large"));
+        session.setLastAccessedTime(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+
+        // when
+        repository.save(session);
+        var summaries = repository.findSummariesByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "MasterChief");
+
+        // then
+        assertThat(summaries).containsOnlyKeys(session.getId());
+        SessionSummary summary = summaries.get(session.getId());
+        assertThat(summary.getId()).isEqualTo(session.getId());
+        assertThat(summary.getCreationTime()).isEqualTo(session.getCreationTime().truncatedTo(ChronoUnit.MILLIS));
+        assertThat(summary.getLastAccessedTime()).isEqualTo(session.getLastAccessedTime());
+        assertThat(summary.getMaxInactiveInterval()).isEqualTo(session.getMaxInactiveInterval());
+        assertThat(otherMemberRepository.findSummariesByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "Yoda"))
+                .isEmpty();
+    }
+
+    @Test
+    void streamPrincipalSessionsOrderedByLastAccessedTime() {
+        // given
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<String> expectedIds = new ArrayList<>();
+        for (int i = 5; i > 0; i--) {
+            var session = repository.createSession();
+            session.setAttribute(PRINCIPAL_NAME_ATTRIBUTE, "MasterChief");
+            session.setLastAccessedTime(now.minusSeconds(i));
+            repository.save(session);
+            expectedIds.add(session.getId());
+        }
+
+        // when
+        var sessions = repository.streamByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "MasterChief", 2);
+
+        // then
+        assertThat(sessions.map(HazelcastSession::getId)).containsExactlyElementsOf(expectedIds);
+    }
+
     @Test
     void handlePrincipalAttributeRemoval() {
         // given
@@ -291,6 +338,28 @@ public class AttributeHandlingTest extends TestWithHazelcast {
         assertThat(repository.findById(session.getId()).getAttributeNames()).isEmpty();
     }
 
+    @Test
+    void encodedAttributesCoexistWithPlainOnes() {
+        String large = "compressible ".repeat(100);
+        HazelcastSession session = repository.createSession();
+        session.setAttribute("plain", large);
+        repository.save(session);
+
+        repository.setAttributeCodec(AttributeCodec.DEFLATE, 512);
+        session.setAttribute("encoded", large);
+        session.setAttribute("small", "value");
+        repository.save(session);
+
+        BackingMapSession stored = sessionsMap.get(session.getId());
+        assertThat(stored.getAttribute("plain").codecId()).isZero();
+        assertThat(stored.getAttribute("small").codecId()).isZero();
+        assertThat(stored.getAttribute("encoded").codecId()).isEqualTo(AttributeCodec.DEFLATE.id());
+        assertThat(stored.getAttribute("encoded").objectBytes()).hasSizeLessThan(large.length());
+
+        assertAttributes(otherMemberRepository.findById(session.getId()),
+                         Map.of("plain", large, "encoded", large, "small", "value"));
+    }
+
     private static ObjectAssert<Object> assertAttribute(HazelcastSession session,
                                                         String attributeName) {
         assertThat(session).isNotNull();
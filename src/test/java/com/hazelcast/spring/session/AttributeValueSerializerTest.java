@@ -22,8 +22,10 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.spi.impl.SerializationServiceSupport;
 import org.example.CustomPojo;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 
@@ -53,6 +55,22 @@ public class AttributeValueSerializerTest extends TestWithHazelcast {
         assertThat(av).isEqualTo(attributeValue);
     }
 
+    @Test
+    void serializedFormSharesBytesWithData() {
+        AttributeValue attributeValue = AttributeValue.deserialized(new CustomPojo(1, "Luke"));
+        attributeValue.serialize(serializationService);
+
+        Data data = (Data) ReflectionTestUtils.getField(attributeValue, "data");
+        assertThat(data).isNotNull();
+        assertThat(data.toByteArray()).isSameAs(attributeValue.objectBytes());
+
+        AttributeValue read = AttributeValue.serialized(attributeValue.objectBytes());
+        assertThat(read).isNotNull();
+        read.deserialize(serializationService);
+        assertThat(read.object()).isEqualTo(new CustomPojo(1, "Luke"));
+        assertThat(((Data) ReflectionTestUtils.getField(read, "data")).toByteArray()).isSameAs(attributeValue.objectBytes());
+    }
+
     static List<AttributeValue> attributes() {
         List<AttributeValue> list = List.of(
                 AttributeValue.string("value1"),
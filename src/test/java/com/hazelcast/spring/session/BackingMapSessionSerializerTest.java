@@ -19,12 +19,16 @@ package com.hazelcast.spring.session;
 import com.hazelcast.config.Config;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
 import com.hazelcast.spi.impl.SerializationServiceSupport;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -42,8 +46,8 @@ public class BackingMapSessionSerializerTest extends TestWithHazelcast {
         // given
         BackingMapSession backingMapSession = new BackingMapSession("originalId");
         backingMapSession.setId("test");
-        backingMapSession.setCreationTime(Instant.now());
-        backingMapSession.setLastAccessedTime(Instant.now());
+        backingMapSession.setCreationTime(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        backingMapSession.setLastAccessedTime(Instant.now().truncatedTo(ChronoUnit.MILLIS));
         backingMapSession.setMaxInactiveInterval(Duration.ofDays(1));
         backingMapSession.setPrincipalName("principal");
 
@@ -54,4 +58,96 @@ public class BackingMapSessionSerializerTest extends TestWithHazelcast {
         // then
         assertThat(deserializedBackingMapSession).isEqualTo(backingMapSession);
     }
+
+    @Test
+    void attributesOfDeserializedSessionAreAccessibleBeforeAndAfterModification() {
+        // given
+        BackingMapSession backingMapSession = new BackingMapSession("originalId");
+        backingMapSession.setPrincipalName("principal");
+        for (int i = 0; i < 5; i++) {
+            backingMapSession.setAttribute("attribute" + i, AttributeValue.deserialized("value" + i));
+        }
+        backingMapSession.prepareAttributesSerializedForm(serializationService);
+
+        // when
+        BackingMapSession deserialized = serializationService.toObject(serializationService.toData(backingMapSession));
+
+        // then
+        assertThat(deserialized.getAttributeNames()).containsExactlyInAnyOrder("attribute0", "attribute1", "attribute2",
+                "attribute3", "attribute4", HazelcastIndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE,
+                org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+        assertThat(deserialized.getAttribute("missing")).isNull();
+        AttributeValue attribute = deserialized.getAttribute("attribute3");
+        assertThat(attribute).isNotNull();
+        attribute.deserialize(serializationService);
+        assertThat(attribute.object()).isEqualTo("value3");
+
+        BackingMapSession copy = deserialized.serializedCopy();
+        assertThat(copy.getAttributeNameWithoutPrincipal()).hasSize(5);
+
+        deserialized.removeAttribute("attribute0");
+        deserialized.setAttribute("attribute5", AttributeValue.deserialized("value5"));
+        assertThat(deserialized.getAttribute("attribute0")).isNull();
+        assertThat(deserialized.getAttribute("attribute3")).isSameAs(attribute);
+        assertThat(deserialized.getAttributeNameWithoutPrincipal())
+                .containsExactlyInAnyOrder("attribute1", "attribute2", "attribute3", "attribute4", "attribute5");
+        assertThat(copy.getAttribute("attribute0")).isNotNull();
+    }
+
+    @Test
+    void equalsAndHashCodeDoNotIndexAttributesOfDeserializedSession() {
+        // given
+        BackingMapSession backingMapSession = new BackingMapSession("originalId");
+        for (int i = 0; i < 5; i++) {
+            backingMapSession.setAttribute("attribute" + i, AttributeValue.deserialized("value" + i));
+        }
+        backingMapSession.prepareAttributesSerializedForm(serializationService);
+        Data serialized = serializationService.toData(backingMapSession);
+
+        // when
+        BackingMapSession deserialized = serializationService.toObject(serialized);
+        BackingMapSession other = serializationService.toObject(serialized);
+
+        // then
+        assertThat(deserialized).isEqualTo(other).hasSameHashCodeAs(other);
+        assertThat(ReflectionTestUtils.getField(deserialized, "sessionAttrs")).isNull();
+        assertThat(ReflectionTestUtils.getField(other, "sessionAttrs")).isNull();
+
+        other.setAttribute("attribute0", AttributeValue.serialized(new byte[] {1}));
+        assertThat(deserialized).isNotEqualTo(other);
+    }
+
+    @Test
+    void sessionInLayoutBefore41IsReadable() {
+        // given
+        Instant creationTime = Instant.ofEpochSecond(1_700_000_000L, 123_456_789);
+        Instant lastAccessedTime = creationTime.plusSeconds(30);
+        GenericRecord oldLayout = GenericRecordBuilder.compact("BackingMapSession")
+                .setString("originalId", "originalId")
+                .setString("id", "test")
+                .setString("principalName", "principal")
+                .setNullableInt64("creationTime_seconds", creationTime.getEpochSecond())
+                .setNullableInt32("creationTime_nanos", creationTime.getNano())
+                .setNullableInt64("lastAccessedTime_seconds", lastAccessedTime.getEpochSecond())
+                .setNullableInt32("lastAccessedTime_nanos", lastAccessedTime.getNano())
+                .setNullableInt64("maxInactiveInterval_seconds", 1800L)
+                .setNullableInt32("maxInactiveInterval_nanos", 0)
+                .setArrayOfString("attributeNames", new String[0])
+                .setArrayOfGenericRecord("attributeValues", new GenericRecord[0])
+                .build();
+
+        // when
+        BackingMapSession session = serializationService.toObject(serializationService.toData(oldLayout));
+
+        // then
+        assertThat(session.getId()).isEqualTo("test");
+        assertThat(session.getCreationTime()).isEqualTo(creationTime);
+        assertThat(session.getLastAccessedTime()).isEqualTo(lastAccessedTime);
+        assertThat(session.getMaxInactiveInterval()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(session.getVersion()).isEqualTo(BackingMapSession.UNVERSIONED);
+
+        // and the session is written back in the new layout
+        assertThat(serializationService.<BackingMapSession>toObject(serializationService.toData(session))
+                           .getLastAccessedTime()).isEqualTo(lastAccessedTime.truncatedTo(ChronoUnit.MILLIS));
+    }
 }
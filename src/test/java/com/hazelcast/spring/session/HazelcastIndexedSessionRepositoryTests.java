@@ -21,17 +21,29 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.IMap;
 import com.hazelcast.config.Config;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
 import com.hazelcast.map.listener.MapListener;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.predicates.EqualPredicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -40,19 +52,26 @@ import org.springframework.session.FindByIndexNameSessionRepository;
 import org.springframework.session.FlushMode;
 import org.springframework.session.MapSession;
 import org.springframework.session.SaveMode;
+import org.springframework.session.Session;
+import org.springframework.session.events.SessionCreatedEvent;
+import org.springframework.session.events.SessionDeletedEvent;
 import com.hazelcast.spring.session.HazelcastIndexedSessionRepository.HazelcastSession;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import static com.hazelcast.spring.session.TestUtils.defaultSerializationService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -292,6 +311,191 @@ class HazelcastIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessions);
 	}
 
+	@Test
+	void saveTouchOnlyWithinGranularity() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setTouchGranularity(Duration.ofSeconds(60));
+
+		BackingMapSession delegate = new BackingMapSession();
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(10));
+		this.repository.save(session);
+
+		assertThat(session.hasChanges()).isFalse();
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveTouchOnlyBeyondGranularity() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setTouchGranularity(Duration.ofSeconds(60));
+
+		BackingMapSession delegate = new BackingMapSession();
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(10));
+		this.repository.save(session);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(60));
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).executeOnKey(eq(session.getId()), any(EntryProcessor.class));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveTouchWithAttributeChangeWithinGranularity() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setTouchGranularity(Duration.ofSeconds(60));
+
+		BackingMapSession delegate = new BackingMapSession();
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.setLastAccessedTime(delegate.getLastAccessedTime().plusSeconds(10));
+		session.setAttribute("testName", "testValue");
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).executeOnKey(eq(session.getId()), any(EntryProcessor.class));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void setTouchGranularityNegative() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> this.repository.setTouchGranularity(Duration.ofSeconds(-1)))
+			.withMessage("touchGranularity must not be negative");
+	}
+
+	@Test
+	void saveAsyncNew() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(CompletableFuture.completedFuture(null));
+
+		HazelcastSession session = this.repository.createSession();
+		CompletionStage<Void> result = this.repository.saveAsync(session);
+
+		assertThat(result.toCompletableFuture()).isCompleted();
+		verify(this.sessions, times(1)).setAsync(eq(session.getId()), any(BackingMapSession.class), isA(Long.class),
+				eq(TimeUnit.SECONDS));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveAsyncAppliesWritesOfSessionInOrder() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		CompletableFuture<Void> firstWrite = new CompletableFuture<>();
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(firstWrite);
+		given(this.sessions.submitToKey(anyString(), any(EntryProcessor.class)))
+			.willReturn(CompletableFuture.completedFuture(Boolean.TRUE));
+
+		HazelcastSession session = this.repository.createSession();
+		this.repository.saveAsync(session);
+		session.setAttribute("testName", "testValue");
+		CompletionStage<Void> secondWrite = this.repository.saveAsync(session);
+
+		verify(this.sessions, never()).submitToKey(anyString(), any(EntryProcessor.class));
+		assertThat(secondWrite.toCompletableFuture()).isNotDone();
+
+		firstWrite.complete(null);
+
+		assertThat(secondWrite.toCompletableFuture()).isCompleted();
+		verify(this.sessions, times(1)).submitToKey(eq(session.getId()), any(EntryProcessor.class));
+	}
+
+	@Test
+	void saveWithAsyncSaveDoesNotBlock() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setAsyncSave(true);
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(new CompletableFuture<>());
+
+		HazelcastSession session = this.repository.createSession();
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).setAsync(eq(session.getId()), any(BackingMapSession.class), isA(Long.class),
+				eq(TimeUnit.SECONDS));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void setMaxInFlightWritesNotPositive() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setMaxInFlightWrites(0))
+			.withMessage("maxInFlightWrites must be positive");
+	}
+
+	@Test
+	void setMaxInFlightWritesAfterFirstWrite() {
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(CompletableFuture.completedFuture(null));
+		this.repository.saveAsync(this.repository.createSession());
+
+		assertThatIllegalStateException().isThrownBy(() -> this.repository.setMaxInFlightWrites(10))
+			.withMessage("maxInFlightWrites cannot be changed after the first asynchronous write");
+	}
+
+	@Test
+	void saveAsyncFallbackRunsOnExecutorInOrder() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		List<Runnable> tasks = new ArrayList<>();
+		this.repository.setDeployedOnAllMembers(false).setAsyncSaveExecutor(tasks::add);
+		BackingMapSession stored = new BackingMapSession();
+		given(this.sessions.get(stored.getId())).willReturn(stored);
+
+		HazelcastSession session = this.repository.new HazelcastSession(stored.serializedCopy(), false);
+		session.setAttribute("testName", "testValue");
+		CompletionStage<Void> result = this.repository.saveAsync(session);
+
+		assertThat(result.toCompletableFuture()).isNotDone();
+		verifyNoMoreInteractions(this.sessions);
+		assertThat(tasks).hasSize(1);
+
+		tasks.get(0).run();
+
+		assertThat(result.toCompletableFuture()).isCompleted();
+		verify(this.sessions, times(1)).lock(stored.getId());
+		verify(this.sessions, times(1)).unlock(stored.getId());
+	}
+
+	@Test
+	void saveChangedSessionIdDeletesOriginalAfterNewEntry() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+
+		BackingMapSession delegate = new BackingMapSession();
+		String originalId = delegate.getId();
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		String newId = session.changeSessionId();
+		this.repository.save(session);
+
+		InOrder inOrder = inOrder(this.sessions);
+		inOrder.verify(this.sessions).set(eq(newId), any(BackingMapSession.class), isA(Long.class), eq(TimeUnit.SECONDS));
+		inOrder.verify(this.sessions).delete(originalId);
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveAsyncChangedSessionIdKeepsOriginalIfNewEntryFails() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		CompletableFuture<Void> set = new CompletableFuture<>();
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(set);
+
+		BackingMapSession delegate = new BackingMapSession();
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		String newId = session.changeSessionId();
+		CompletionStage<Void> result = this.repository.saveAsync(session);
+
+		verify(this.sessions).setAsync(eq(newId), any(BackingMapSession.class), isA(Long.class), eq(TimeUnit.SECONDS));
+		set.completeExceptionally(new IllegalStateException("test"));
+
+		assertThat(result.toCompletableFuture()).isCompletedExceptionally();
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void setOptimisticUpdateAttemptsNegative() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.repository.setOptimisticUpdateAttempts(-1))
+			.withMessage("maxAttempts must not be negative");
+	}
+
 	@Test
 	void getSessionNotFound() {
 		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
@@ -321,6 +525,34 @@ class HazelcastIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessions);
 	}
 
+	@Test
+	void findAllByIdReturnsFoundSessionsAndDeletesExpiredOnes() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+
+		BackingMapSession found = new BackingMapSession();
+		BackingMapSession expired = new BackingMapSession();
+		expired.setLastAccessedTime(Instant.now().minusSeconds(MapSession.DEFAULT_MAX_INACTIVE_INTERVAL_SECONDS + 1));
+		Set<String> ids = Set.of(found.getId(), expired.getId(), "missing");
+		given(this.sessions.getAll(ids)).willReturn(Map.of(found.getId(), found, expired.getId(), expired));
+		given(this.sessions.deleteAsync(expired.getId())).willReturn(CompletableFuture.completedFuture(true));
+
+		Map<String, HazelcastSession> sessions = this.repository.findAllById(List.of(found.getId(), expired.getId(), "missing"));
+
+		assertThat(sessions).containsOnlyKeys(found.getId());
+		assertThat(sessions.get(found.getId()).getDelegate()).isSameAs(found);
+		verify(this.sessions, times(1)).getAll(ids);
+		verify(this.sessions, times(1)).deleteAsync(expired.getId());
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void findAllByIdWithoutIdsDoesNotQueryCluster() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+
+		assertThat(this.repository.findAllById(List.of())).isEmpty();
+		verifyNoMoreInteractions(this.sessions);
+	}
+
 	@Test
 	void getSessionFound() {
 		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
@@ -401,6 +633,206 @@ class HazelcastIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessions);
 	}
 
+	@Test
+	void deleteByPrincipalNameRemovesMatchingSessionsOnCluster() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+
+		this.repository.deleteByPrincipalName("username");
+
+		verify(this.sessions, times(1)).removeAll(isA(EqualPredicate.class));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void deleteByIndexNameAndIndexValueUnknownIndexNameOrNullValue() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+
+		this.repository.deleteByIndexNameAndIndexValue("testIndexName", "username");
+		this.repository.deleteByIndexNameAndIndexValue(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, null);
+
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWithNewPrincipalDeletesLeastRecentlyAccessedSessionsOverLimit() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setMaxSessionsPerPrincipal(2);
+		long now = System.currentTimeMillis();
+		given(this.sessions.project(any(Projection.class), isA(EqualPredicate.class))).willReturn(List.of(
+				summaryRow("recent", now - 1_000), summaryRow("oldest", now - 3_000), summaryRow("older", now - 2_000)));
+		given(this.sessions.deleteAsync(anyString())).willReturn(CompletableFuture.completedFuture(true));
+
+		HazelcastSession session = this.repository.createSession();
+		session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "username");
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).set(eq(session.getId()), eq(session.getDelegate()), isA(Long.class),
+				eq(TimeUnit.SECONDS));
+		verify(this.sessions, times(1)).project(any(Projection.class), isA(EqualPredicate.class));
+		verify(this.sessions, times(1)).deleteAsync("oldest");
+		verify(this.sessions, times(1)).deleteAsync("older");
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveWithoutPrincipalChangeDoesNotCheckSessionLimit() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setMaxSessionsPerPrincipal(1);
+
+		HazelcastSession session = this.repository.createSession();
+		session.setAttribute("attribute", "value");
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).set(eq(session.getId()), eq(session.getDelegate()), isA(Long.class),
+				eq(TimeUnit.SECONDS));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	void saveWithSaveModeAlwaysAndSamePrincipalDoesNotCheckSessionLimit() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setMaxSessionsPerPrincipal(1).setSaveMode(SaveMode.ALWAYS);
+		BackingMapSession stored = new BackingMapSession();
+		stored.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, AttributeValue.string("username"));
+
+		HazelcastSession session = this.repository.new HazelcastSession(stored, false);
+		session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME);
+		this.repository.save(session);
+
+		verify(this.sessions, times(1)).executeOnKey(eq(stored.getId()), any(EntryProcessor.class));
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveAsyncWithNewPrincipalChecksSessionLimitAfterWrite() {
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+		List<Runnable> tasks = new ArrayList<>();
+		this.repository.setMaxSessionsPerPrincipal(1).setAsyncSaveExecutor(tasks::add);
+		CompletableFuture<Void> write = new CompletableFuture<>();
+		given(this.sessions.setAsync(anyString(), any(BackingMapSession.class), anyLong(), eq(TimeUnit.SECONDS)))
+			.willReturn(write);
+		given(this.sessions.project(any(Projection.class), isA(EqualPredicate.class)))
+			.willReturn(List.of(summaryRow("other", System.currentTimeMillis())));
+		given(this.sessions.deleteAsync(anyString())).willReturn(CompletableFuture.completedFuture(true));
+
+		HazelcastSession session = this.repository.createSession();
+		session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "username");
+		CompletionStage<Void> result = this.repository.saveAsync(session);
+
+		verify(this.sessions, never()).project(any(Projection.class), any(Predicate.class));
+		write.complete(null);
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+
+		assertThat(result.toCompletableFuture()).isCompleted();
+		verify(this.sessions, times(1)).project(any(Projection.class), isA(EqualPredicate.class));
+		verify(this.sessions, times(1)).deleteAsync("other");
+	}
+
+	private static Object[] summaryRow(String id, long lastAccessedTimeMillis) {
+		return new Object[] { id, lastAccessedTimeMillis, lastAccessedTimeMillis, 1_800_000L, null, null, null, null,
+				null, null };
+	}
+
+	@Test
+	void eventsWithoutValuesLoadCreatedSessionLazily() {
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setIncludeValuesInEvents(false);
+		List<Object> events = new ArrayList<>();
+		repository.setApplicationEventPublisher(events::add);
+		repository.afterPropertiesSet();
+		verify(this.sessions, times(1)).addEntryListener(repository, false);
+
+		BackingMapSession stored = new BackingMapSession("id");
+		stored.setAttribute("attribute", AttributeValue.string("value"));
+		given(this.sessions.get("id")).willReturn(stored);
+		EntryEvent<String, BackingMapSession> added = mock(EntryEvent.class);
+		given(added.getKey()).willReturn("id");
+		EntryEvent<String, BackingMapSession> removed = mock(EntryEvent.class);
+		given(removed.getKey()).willReturn("id");
+
+		repository.entryAdded(added);
+		repository.entryRemoved(removed);
+
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0)).isInstanceOf(SessionCreatedEvent.class);
+		Session created = ((SessionCreatedEvent) events.get(0)).getSession();
+		assertThat(created.getId()).isEqualTo("id");
+		verify(this.sessions, never()).get("id");
+		assertThat(created.getAttributeNames()).containsExactly("attribute");
+		verify(this.sessions, times(1)).get("id");
+		assertThat(events.get(1)).isInstanceOf(SessionDeletedEvent.class);
+		assertThat(((SessionDeletedEvent) events.get(1)).getSessionId()).isEqualTo("id");
+	}
+
+	@Test
+	void eventsWithoutValuesPublishCreatedEventForChangedSessionId() {
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setIncludeValuesInEvents(false);
+		List<Object> events = new ArrayList<>();
+		repository.setApplicationEventPublisher(events::add);
+		repository.afterPropertiesSet();
+		BackingMapSession renamed = new BackingMapSession("original");
+		renamed.setId("renamed");
+		EntryEvent<String, BackingMapSession> addedWithValue = mock(EntryEvent.class);
+		given(addedWithValue.getValue()).willReturn(renamed);
+		EntryEvent<String, BackingMapSession> addedWithoutValue = mock(EntryEvent.class);
+		given(addedWithoutValue.getKey()).willReturn("renamed");
+
+		this.repository.setApplicationEventPublisher(events::add);
+		this.repository.entryAdded(addedWithValue);
+		repository.entryAdded(addedWithoutValue);
+
+		assertThat(events).hasSize(1);
+		assertThat(((SessionCreatedEvent) events.get(0)).getSessionId()).isEqualTo("renamed");
+	}
+
+	@Test
+	void localEventsOnlyRegistersLocalListener() {
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setLocalEventsOnly(true);
+		repository.afterPropertiesSet();
+
+		verify(this.sessions, times(1)).addLocalEntryListener(eq(repository), any(Predicate.class), eq(true));
+	}
+
+	@Test
+	void localEventsOnlyIsNotSupportedByClient() {
+		given(this.sessions.addLocalEntryListener(any(MapListener.class), any(Predicate.class), anyBoolean()))
+			.willThrow(new UnsupportedOperationException("Locality is ambiguous for client!"));
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setLocalEventsOnly(true);
+
+		assertThatIllegalStateException().isThrownBy(repository::afterPropertiesSet)
+			.withMessageContaining("not a client");
+	}
+
+	@Test
+	void onlyListenersOfSelectedEventTypesAreRegistered() {
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setSessionEventTypes(Set.of(SessionEventType.EXPIRED));
+		repository.afterPropertiesSet();
+
+		ArgumentCaptor<MapListener> captor = ArgumentCaptor.forClass(MapListener.class);
+		verify(this.sessions, times(2)).addEntryListener(captor.capture(), eq(true));
+		MapListener listener = captor.getAllValues().get(1);
+		assertThat(listener).isInstanceOf(EntryExpiredListener.class)
+			.isInstanceOf(EntryEvictedListener.class)
+			.isNotInstanceOf(EntryAddedListener.class)
+			.isNotInstanceOf(EntryRemovedListener.class);
+	}
+
+	@Test
+	void noListenerIsRegisteredWithoutEventTypes() {
+		HazelcastIndexedSessionRepository repository = new HazelcastIndexedSessionRepository(this.hazelcastInstance)
+			.setSessionEventTypes(Set.of());
+		repository.afterPropertiesSet();
+
+		verify(this.sessions, times(1)).addEntryListener(any(MapListener.class), anyBoolean());
+	}
+
 	@Test // gh-1120
 	void getAttributeNamesAndRemove() {
 		HazelcastSession session = this.repository.createSession();
@@ -452,6 +884,62 @@ class HazelcastIndexedSessionRepositoryTests {
 		verifyNoMoreInteractions(this.sessions);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWithSaveModeOnGetAttributeWritesModifiedReadAttribute() {
+		verify(this.sessions).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE);
+		BackingMapSession delegate = new BackingMapSession();
+		delegate.setSerializedAttribute("cart", serialized(new ArrayList<>(List.of("item1"))));
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.<List<String>>getAttribute("cart").add("item2");
+		this.repository.save(session);
+
+		ArgumentCaptor<SessionUpdateEntryProcessor> captor = ArgumentCaptor.forClass(SessionUpdateEntryProcessor.class);
+		verify(this.sessions).executeOnKey(eq(session.getId()), captor.capture());
+		Map<String, byte[]> delta = (Map<String, byte[]>) ReflectionTestUtils.getField(captor.getValue(), "delta");
+		assertThat(delta).containsOnlyKeys("cart");
+		assertThat((Object) defaultSerializationService().toObject(new HeapData(delta.get("cart"))))
+			.isEqualTo(List.of("item1", "item2"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void saveWithSkipUnchangedAttributesWritesOnlyModifiedAttributes() {
+		verify(this.sessions).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setSaveMode(SaveMode.ON_GET_ATTRIBUTE).setSkipUnchangedAttributes(true);
+		BackingMapSession delegate = new BackingMapSession();
+		delegate.setSerializedAttribute("cart", serialized(new ArrayList<>(List.of("item1"))));
+		delegate.setSerializedAttribute("unchanged", serialized("value"));
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.getAttribute("unchanged");
+		session.<List<String>>getAttribute("cart").add("item2");
+		this.repository.save(session);
+
+		ArgumentCaptor<SessionUpdateEntryProcessor> captor = ArgumentCaptor.forClass(SessionUpdateEntryProcessor.class);
+		verify(this.sessions).executeOnKey(eq(session.getId()), captor.capture());
+		assertThat((Map<String, Object>) ReflectionTestUtils.getField(captor.getValue(), "delta"))
+			.containsOnlyKeys("cart");
+	}
+
+	@Test
+	void saveWithSkipUnchangedAttributesAndOnlyReadsDoesNotWrite() {
+		verify(this.sessions).addEntryListener(any(MapListener.class), anyBoolean());
+		this.repository.setSaveMode(SaveMode.ALWAYS).setSkipUnchangedAttributes(true);
+		BackingMapSession delegate = new BackingMapSession();
+		delegate.setSerializedAttribute("read", serialized("value1"));
+		delegate.setSerializedAttribute("notRead", serialized("value2"));
+		HazelcastSession session = this.repository.new HazelcastSession(delegate, false);
+		session.getAttribute("read");
+		this.repository.save(session);
+
+		verifyNoMoreInteractions(this.sessions);
+	}
+
+	private static AttributeValue serialized(Object value) {
+		return AttributeValue.serialized(defaultSerializationService().toData(value).toByteArray());
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void saveWithSaveModeAlways() {
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.session.HazelcastIndexedSessionRepository.HazelcastSession;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.hazelcast.spring.session.TestUtils.getConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+class HazelcastSessionRepositoryMetricsTest extends TestWithHazelcast {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private HazelcastIndexedSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        HazelcastInstance instance = FACTORY.newHazelcastInstance(getConfig());
+        this.repository = new HazelcastIndexedSessionRepository(instance);
+        this.repository.afterPropertiesSet();
+        new HazelcastSessionRepositoryMetrics(this.repository).bindTo(this.registry);
+    }
+
+    @AfterEach
+    void clean() {
+        FACTORY.shutdownAll();
+    }
+
+    @Test
+    void saveIsRecordedPerOperation() {
+        HazelcastSession session = repository.createSession();
+        session.setAttribute("key", "value");
+        repository.save(session);
+
+        session.setAttribute("key", "changed");
+        repository.save(session);
+
+        session.changeSessionId();
+        repository.save(session);
+
+        // nothing changed, nothing written
+        repository.save(session);
+
+        assertThat(saveTimer("new").count()).isEqualTo(1);
+        assertThat(saveTimer("delta").count()).isEqualTo(1);
+        assertThat(saveTimer("id_changed").count()).isEqualTo(1);
+        assertThat(saveTimer("fallback").count()).isZero();
+        DistributionSummary sessionSize = registry.get("spring.session.hazelcast.session.size").summary();
+        assertThat(sessionSize.count()).isEqualTo(3);
+        assertThat(sessionSize.max()).isPositive();
+        assertThat(registry.get("spring.session.hazelcast.attribute.size").summary().count()).isEqualTo(3);
+    }
+
+    @Test
+    void fallbackSaveIsRecorded() {
+        repository.setDeployedOnAllMembers(false);
+        HazelcastSession session = repository.createSession();
+        repository.save(session);
+
+        session.setLastAccessedTime(Instant.now());
+        repository.save(session);
+
+        assertThat(saveTimer("fallback").count()).isEqualTo(1);
+    }
+
+    @Test
+    void findByIdIsRecordedPerResult() {
+        HazelcastSession session = repository.createSession();
+        repository.save(session);
+
+        repository.findById(session.getId());
+        repository.findById("unknown");
+        repository.deleteById(session.getId());
+
+        assertThat(findTimer("hit").count()).isEqualTo(1);
+        assertThat(findTimer("miss").count()).isEqualTo(1);
+        assertThat(findTimer("expired").count()).isZero();
+        assertThat(registry.get("spring.session.hazelcast.delete").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void findByIndexIsRecorded() {
+        repository.findByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "user");
+
+        Timer timer = registry.get("spring.session.hazelcast.find.by.index")
+                              .tag("map", HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME)
+                              .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findSummariesByIndexIsRecordedSeparately() {
+        repository.setMaxSessionsPerPrincipal(1);
+        HazelcastSession session = repository.createSession();
+        session.setAttribute(PRINCIPAL_NAME_INDEX_NAME, "user");
+        // queries the sessions of the principal, which is not a lookup of the caller
+        repository.save(session);
+
+        assertThat(findSummariesByIndexTimer().count()).isZero();
+
+        repository.findSummariesByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "user");
+
+        assertThat(findSummariesByIndexTimer().count()).isEqualTo(1);
+        assertThat(registry.get("spring.session.hazelcast.find.by.index").timer().count()).isZero();
+    }
+
+    private Timer findSummariesByIndexTimer() {
+        return registry.get("spring.session.hazelcast.find.summaries.by.index").timer();
+    }
+
+    private Timer saveTimer(String operation) {
+        return registry.get("spring.session.hazelcast.save").tag("operation", operation).timer();
+    }
+
+    private Timer findTimer(String result) {
+        return registry.get("spring.session.hazelcast.find").tag("result", result).timer();
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
+import com.hazelcast.spring.session.HazelcastIndexedSessionRepository.HazelcastSession;
+import org.example.CustomPojo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static com.hazelcast.spring.session.TestUtils.getClientConfig;
+import static com.hazelcast.spring.session.TestUtils.getConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalSessionCacheTest extends TestWithHazelcast {
+
+    private HazelcastIndexedSessionRepository repository;
+    private HazelcastIndexedSessionRepository otherRepository;
+    private HazelcastInstance otherMember;
+
+    @BeforeEach
+    void setUp() {
+        FACTORY.newHazelcastInstance(getConfig());
+        HazelcastInstance client = FACTORY.newHazelcastClient(getClientConfig());
+
+        this.repository = new HazelcastIndexedSessionRepository(client)
+                .setLocalSessionCacheSize(10);
+        this.repository.afterPropertiesSet();
+
+        this.otherMember = FACTORY.newHazelcastInstance(getConfig());
+        this.otherRepository = new HazelcastIndexedSessionRepository(this.otherMember);
+        this.otherRepository.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void clean() {
+        FACTORY.shutdownAll();
+    }
+
+    @Test
+    void savedSessionIsCached() {
+        HazelcastSession session = repository.createSession();
+        session.setAttribute("key", new CustomPojo(1, "1"));
+        repository.save(session);
+
+        assertThat(localSessionCache().get(session.getId())).isNotNull();
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        assertThat(found.<CustomPojo>getAttribute("key")).isEqualTo(new CustomPojo(1, "1"));
+    }
+
+    @Test
+    void sessionModifiedElsewhereIsNotReturnedFromCache() {
+        HazelcastSession session = repository.createSession();
+        session.setAttribute("key", "value1");
+        repository.save(session);
+
+        HazelcastSession fromOtherNode = otherRepository.findById(session.getId());
+        assertThat(fromOtherNode).isNotNull();
+        fromOtherNode.setAttribute("key", "value2");
+        otherRepository.save(fromOtherNode);
+
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        assertThat(found.<String>getAttribute("key")).isEqualTo("value2");
+    }
+
+    @Test
+    void sessionDeletedElsewhereIsNotReturnedFromCache() {
+        HazelcastSession session = repository.createSession();
+        repository.save(session);
+
+        otherRepository.deleteById(session.getId());
+
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(localSessionCache().get(session.getId())).isNull();
+    }
+
+    @Test
+    void unsavedChangesAreNotVisibleInCache() {
+        HazelcastSession session = repository.createSession();
+        session.setAttribute("key", new CustomPojo(1, "1"));
+        repository.save(session);
+
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        found.setAttribute("key", new CustomPojo(2, "2"));
+        found.setAttribute("other", "value");
+
+        HazelcastSession foundAgain = repository.findById(session.getId());
+        assertThat(foundAgain).isNotNull();
+        assertThat(foundAgain.<CustomPojo>getAttribute("key")).isEqualTo(new CustomPojo(1, "1"));
+        assertThat(foundAgain.getAttributeNames()).containsOnly("key");
+    }
+
+    @Test
+    void ownUpdatesKeepCachedSessionValid() {
+        HazelcastSession session = repository.createSession();
+        repository.save(session);
+
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        found.setAttribute("key", "value");
+        repository.save(found);
+
+        BackingMapSession cached = localSessionCache().get(session.getId());
+        assertThat(cached).isNotNull();
+        assertThat(cached.getVersion()).isEqualTo(1);
+        HazelcastSession foundAgain = repository.findById(session.getId());
+        assertThat(foundAgain).isNotNull();
+        assertThat(foundAgain.<String>getAttribute("key")).isEqualTo("value");
+    }
+
+    @Test
+    void sessionStoredWithoutVersionIsNotCached() {
+        Instant now = Instant.now();
+        GenericRecord layoutBefore41 = GenericRecordBuilder.compact("BackingMapSession")
+                .setString("originalId", "legacy")
+                .setString("id", "legacy")
+                .setString("principalName", null)
+                .setNullableInt64("creationTime_seconds", now.getEpochSecond())
+                .setNullableInt32("creationTime_nanos", now.getNano())
+                .setNullableInt64("lastAccessedTime_seconds", now.getEpochSecond())
+                .setNullableInt32("lastAccessedTime_nanos", now.getNano())
+                .setNullableInt64("maxInactiveInterval_seconds", 1800L)
+                .setNullableInt32("maxInactiveInterval_nanos", 0)
+                .setArrayOfString("attributeNames", new String[0])
+                .setArrayOfGenericRecord("attributeValues", new GenericRecord[0])
+                .build();
+        otherMember.getMap(HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME).set("legacy", layoutBefore41);
+
+        assertThat(repository.findById("legacy")).isNotNull();
+        assertThat(localSessionCache().get("legacy")).isNull();
+
+        HazelcastSession fromOtherNode = otherRepository.findById("legacy");
+        assertThat(fromOtherNode).isNotNull();
+        fromOtherNode.setAttribute("key", "value");
+        otherRepository.save(fromOtherNode);
+
+        HazelcastSession found = repository.findById("legacy");
+        assertThat(found).isNotNull();
+        assertThat(found.<String>getAttribute("key")).isEqualTo("value");
+        assertThat(localSessionCache().get("legacy")).isNull();
+    }
+
+    private LocalSessionCache localSessionCache() {
+        return (LocalSessionCache) ReflectionTestUtils.getField(repository, "localSessionCache");
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spring.session;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spring.session.HazelcastIndexedSessionRepository.HazelcastSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.hazelcast.spring.session.HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME;
+import static com.hazelcast.spring.session.TestUtils.getClientConfig;
+import static com.hazelcast.spring.session.TestUtils.getConfigWithoutSerialization;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Optimistic updates against members without this library, which compare the serialized sessions in
+ * {@link IMap#replace(Object, Object, Object)}.
+ */
+class OptimisticUpdateTest extends TestWithHazelcast {
+
+    private HazelcastIndexedSessionRepository repository;
+    private IMap<String, BackingMapSession> sessions;
+
+    @BeforeEach
+    void setUp() {
+        FACTORY.newHazelcastInstance(getConfigWithoutSerialization());
+        HazelcastInstance client = FACTORY.newHazelcastClient(getClientConfig());
+
+        this.repository = new HazelcastIndexedSessionRepository(client)
+                .setDeployedOnAllMembers(false)
+                .setOptimisticUpdateAttempts(1);
+        this.repository.afterPropertiesSet();
+
+        this.sessions = spy(client.<String, BackingMapSession>getMap(DEFAULT_SESSION_MAP_NAME));
+        ReflectionTestUtils.setField(this.repository, "sessions", this.sessions);
+    }
+
+    @AfterEach
+    void clean() {
+        FACTORY.shutdownAll();
+    }
+
+    @Test
+    void sessionReadFromMapIsReplaced() {
+        HazelcastSession session = repository.createSession();
+        for (int i = 0; i < 50; i++) {
+            session.setAttribute("key" + i, "value" + i);
+        }
+        repository.save(session);
+
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        found.setAttribute("key0", "changed");
+        repository.save(found);
+
+        verify(sessions).replace(anyString(), any(BackingMapSession.class), any(BackingMapSession.class));
+        verify(sessions, never()).lock(anyString());
+        HazelcastSession foundAgain = repository.findById(session.getId());
+        assertThat(foundAgain).isNotNull();
+        assertThat(foundAgain.<String>getAttribute("key0")).isEqualTo("changed");
+        assertThat(foundAgain.getAttributeNames()).hasSize(50);
+    }
+
+    @Test
+    void touchExtendsTimeToLive() throws InterruptedException {
+        HazelcastSession session = repository.createSession();
+        session.setMaxInactiveInterval(Duration.ofMinutes(10));
+        repository.save(session);
+        EntryView<String, BackingMapSession> saved = sessions.getEntryView(session.getId());
+        assertThat(saved).isNotNull();
+
+        // expiration times have a resolution of a second
+        Thread.sleep(1_000);
+        HazelcastSession found = repository.findById(session.getId());
+        assertThat(found).isNotNull();
+        found.setLastAccessedTime(Instant.now());
+        repository.save(found);
+
+        verify(sessions, never()).lock(anyString());
+        EntryView<String, BackingMapSession> touched = sessions.getEntryView(session.getId());
+        assertThat(touched).isNotNull();
+        assertThat(touched.getTtl()).isEqualTo(Duration.ofMinutes(10).toMillis());
+        assertThat(touched.getExpirationTime()).isGreaterThan(saved.getExpirationTime());
+    }
+}
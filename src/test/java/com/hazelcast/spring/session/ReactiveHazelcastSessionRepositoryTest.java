@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spring.session.ReactiveHazelcastSessionRepository.HazelcastSession;
+import org.example.CustomPojo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static com.hazelcast.spring.session.TestUtils.getClientConfig;
+import static com.hazelcast.spring.session.TestUtils.getConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveHazelcastSessionRepositoryTest extends TestWithHazelcast {
+
+    private HazelcastInstance member;
+
+    private ReactiveHazelcastSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.member = FACTORY.newHazelcastInstance(getConfig());
+        HazelcastInstance client = FACTORY.newHazelcastClient(getClientConfig());
+        this.repository = new ReactiveHazelcastSessionRepository(client);
+        this.repository.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void clean() {
+        FACTORY.shutdownAll();
+    }
+
+    @Test
+    void saveNewAndFind() {
+        HazelcastSession session = repository.createSession().block();
+        assertThat(session).isNotNull();
+        session.setAttribute("key", new CustomPojo(1, "1"));
+        repository.save(session).block();
+
+        HazelcastSession found = repository.findById(session.getId()).block();
+        assertThat(found).isNotNull();
+        assertThat(found.<CustomPojo>getAttribute("key")).isEqualTo(new CustomPojo(1, "1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void saveUpdatesOnlyChanges(boolean deployedOnAllMembers) {
+        repository.setDeployedOnAllMembers(deployedOnAllMembers);
+        HazelcastSession session = repository.createSession().block();
+        assertThat(session).isNotNull();
+        session.setAttribute("key1", "value1");
+        session.setAttribute("key2", "value2");
+        repository.save(session).block();
+
+        HazelcastSession found = repository.findById(session.getId()).block();
+        assertThat(found).isNotNull();
+        Instant lastAccessedTime = Instant.now().plusSeconds(10).truncatedTo(ChronoUnit.MILLIS);
+        found.setAttribute("key1", "changed");
+        found.removeAttribute("key2");
+        found.setLastAccessedTime(lastAccessedTime);
+        repository.save(found).block();
+
+        HazelcastSession foundAgain = repository.findById(session.getId()).block();
+        assertThat(foundAgain).isNotNull();
+        assertThat(foundAgain.getAttributeNames()).containsOnly("key1");
+        assertThat(foundAgain.<String>getAttribute("key1")).isEqualTo("changed");
+        assertThat(foundAgain.getLastAccessedTime()).isEqualTo(lastAccessedTime);
+    }
+
+    @Test
+    void changeSessionId() {
+        HazelcastSession session = repository.createSession().block();
+        assertThat(session).isNotNull();
+        session.setAttribute("key", "value");
+        repository.save(session).block();
+        String originalId = session.getId();
+        long version = session.getDelegate().getVersion();
+
+        String newId = session.changeSessionId();
+        repository.save(session).block();
+
+        assertThat(repository.findById(originalId).blockOptional()).isEmpty();
+        HazelcastSession found = repository.findById(newId).block();
+        assertThat(found).isNotNull();
+        assertThat(found.<String>getAttribute("key")).isEqualTo("value");
+        assertThat(found.getDelegate().getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void expiredSessionIsNotReturned() {
+        HazelcastSession session = repository.createSession().block();
+        assertThat(session).isNotNull();
+        session.setMaxInactiveInterval(Duration.ofSeconds(1));
+        session.setLastAccessedTime(Instant.now().minusSeconds(10));
+        repository.save(session).block();
+
+        assertThat(repository.findById(session.getId()).blockOptional()).isEmpty();
+        assertThat(member.getMap(HazelcastIndexedSessionRepository.DEFAULT_SESSION_MAP_NAME).containsKey(session.getId()))
+                .isFalse();
+    }
+
+    @Test
+    void deleteById() {
+        HazelcastSession session = repository.createSession().block();
+        assertThat(session).isNotNull();
+        repository.save(session).block();
+
+        repository.deleteById(session.getId()).block();
+
+        assertThat(repository.findById(session.getId()).blockOptional()).isEmpty();
+    }
+}
@@ -49,10 +49,12 @@ public class SessionUpdateEntryProcessorSerializationTest extends TestWithHazelc
         Data serialized = serializationService.toData(entryProcessor);
         SessionUpdateEntryProcessor deserialized = serializationService.toObject(serialized);
 
+        assertThat(deserialized).isExactlyInstanceOf(entryProcessor.getClass());
         assertThat(deserialized.principalName).isEqualTo(entryProcessor.principalName);
         assertThat(deserialized.lastAccessedTime).isEqualTo(entryProcessor.lastAccessedTime);
         assertThat(deserialized.maxInactiveInterval).isEqualTo(entryProcessor.maxInactiveInterval);
         assertThat(deserialized.delta).usingRecursiveComparison().isEqualTo(entryProcessor.delta);
+        assertThat(deserialized.deltaCodecs).isEqualTo(entryProcessor.deltaCodecs);
     }
 
     public static List<SessionUpdateEntryProcessor> attributes() {
@@ -67,6 +69,16 @@ public class SessionUpdateEntryProcessorSerializationTest extends TestWithHazelc
                         ep.maxInactiveInterval = maxInactiveInterval;
                         ep.principalName = principal;
                         processorList.add(ep);
+
+                        if (delta != null && !delta.isEmpty()) {
+                            var encoded = new EncodedSessionUpdateEntryProcessor();
+                            encoded.delta = delta;
+                            encoded.deltaCodecs = Map.of("key1", AttributeCodec.DEFLATE.id());
+                            encoded.lastAccessedTime = lastAccessedTime;
+                            encoded.maxInactiveInterval = maxInactiveInterval;
+                            encoded.principalName = principal;
+                            processorList.add(encoded);
+                        }
                     }
                 }
             }
@@ -18,16 +18,21 @@ package com.hazelcast.spring.session;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.concurrent.TimeUnit;
 
 import com.hazelcast.map.ExtendedMapEntry;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecord;
+import com.hazelcast.nio.serialization.genericrecord.GenericRecordBuilder;
 import org.assertj.core.api.ObjectAssert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import static com.hazelcast.spring.session.TestUtils.defaultSerializationService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -125,6 +130,47 @@ class SessionUpdateEntryProcessorTests {
 		verify(mapEntry).setValue(mapSession, mapSession.getMaxInactiveInterval().getSeconds(), TimeUnit.SECONDS);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldMergeDeltaIntoGenericRecordKeepingAttributeOrder() {
+		GenericRecord stored = GenericRecordBuilder.compact("BackingMapSession")
+			.setString("originalId", "id")
+			.setString("id", "id")
+			.setString("principalName", null)
+			.setInt64(HazelcastSessionCompactSerializer.CREATION_TIME_FIELD, 0L)
+			.setInt64(HazelcastSessionCompactSerializer.LAST_ACCESSED_TIME_FIELD, 0L)
+			.setInt64(HazelcastSessionCompactSerializer.MAX_INACTIVE_INTERVAL_FIELD, 1_800_000L)
+			.setInt64(HazelcastSessionCompactSerializer.VERSION_FIELD, 3L)
+			.setArrayOfString("attributeNames", new String[] { "first", "removed", "changed" })
+			.setArrayOfGenericRecord("attributeValues", new GenericRecord[] {
+					AttributeValue.serializedGenericRecord(new byte[] { 1 }),
+					AttributeValue.serializedGenericRecord(new byte[] { 2 }),
+					AttributeValue.serializedGenericRecord(new byte[] { 3 }) })
+			.build();
+		ExtendedMapEntry<String, GenericRecord> mapEntry = mock(ExtendedMapEntry.class);
+		given(mapEntry.getValue()).willReturn(stored);
+
+		HashMap<String, AttributeValue> delta = new HashMap<>();
+		delta.put("removed", null);
+		delta.put("changed", AttributeValue.serialized(new byte[] { 4 }));
+		delta.put("added", AttributeValue.serialized(new byte[] { 5 }));
+		this.processor.setDelta(delta);
+		this.processor.principalName = "user";
+
+		Object result = this.processor.process(mapEntry);
+
+		assertThat(result).isEqualTo(Boolean.TRUE);
+		ArgumentCaptor<GenericRecord> captor = ArgumentCaptor.forClass(GenericRecord.class);
+		verify(mapEntry).setValue(captor.capture(), eq(1800L), eq(TimeUnit.SECONDS));
+		GenericRecord updated = captor.getValue();
+		assertThat(updated.getArrayOfString("attributeNames")).containsExactly("first", "changed", "added");
+		assertThat(Arrays.stream(updated.getArrayOfGenericRecord("attributeValues"))
+			.map(value -> value.getArrayOfInt8(AttributeValueCompactSerializer.OBJECT_BYTES_FIELD)[0]))
+			.containsExactly((byte) 1, (byte) 4, (byte) 5);
+		assertThat(updated.getString("principalName")).isEqualTo("user");
+		assertThat(updated.getInt64(HazelcastSessionCompactSerializer.VERSION_FIELD)).isEqualTo(4L);
+	}
+
     public static ObjectAssert<AttributeValue> assertAttribute(BackingMapSession mapSession, String attributeName) {
         AttributeValue attribute = mapSession.getAttribute(attributeName);
         if (attribute != null) {
@@ -17,6 +17,7 @@
 package com.hazelcast.spring.session.config.annotation.web.http;
 
 import java.time.Duration;
+import java.util.EnumSet;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
@@ -44,6 +45,7 @@ import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.UuidSessionIdGenerator;
 import org.springframework.session.config.SessionRepositoryCustomizer;
 import com.hazelcast.spring.session.HazelcastIndexedSessionRepository;
+import com.hazelcast.spring.session.SessionEventType;
 import com.hazelcast.spring.session.config.annotation.SpringSessionHazelcastInstance;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -65,6 +67,8 @@ class HazelcastHttpSessionConfigurationTest {
 
 	private static final int MAX_INACTIVE_INTERVAL_IN_SECONDS = 600;
 
+	private static final int TOUCH_GRANULARITY_IN_SECONDS = 60;
+
 	private AnnotationConfigApplicationContext context;
 
     @BeforeEach
@@ -165,6 +169,20 @@ class HazelcastHttpSessionConfigurationTest {
 			.hasFieldOrPropertyWithValue("saveMode", SaveMode.ALWAYS);
 	}
 
+	@Test
+	void customTouchGranularityAnnotation() {
+		registerAndRefresh(BaseConfiguration.class, CustomTouchGranularityAnnotationConfiguration.class);
+		assertThat(this.context.getBean(HazelcastIndexedSessionRepository.class))
+			.hasFieldOrPropertyWithValue("touchGranularity", Duration.ofSeconds(TOUCH_GRANULARITY_IN_SECONDS));
+	}
+
+	@Test
+	void customSessionEventTypesAnnotation() {
+		registerAndRefresh(BaseConfiguration.class, CustomSessionEventTypesAnnotationConfiguration.class);
+		assertThat(this.context.getBean(HazelcastIndexedSessionRepository.class))
+			.hasFieldOrPropertyWithValue("sessionEventTypes", EnumSet.of(SessionEventType.EXPIRED));
+	}
+
 	@Test
 	void qualifiedHazelcastInstanceConfiguration() {
 		registerAndRefresh(QualifiedHazelcastInstanceConfiguration.class);
@@ -380,6 +398,18 @@ class HazelcastHttpSessionConfigurationTest {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@EnableHazelcastHttpSession(touchGranularityInSeconds = TOUCH_GRANULARITY_IN_SECONDS)
+	static class CustomTouchGranularityAnnotationConfiguration {
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableHazelcastHttpSession(sessionEventTypes = SessionEventType.EXPIRED)
+	static class CustomSessionEventTypesAnnotationConfiguration {
+
+	}
+
 	@Configuration
 	@EnableHazelcastHttpSession
 	static class QualifiedHazelcastInstanceConfiguration extends BaseConfiguration {
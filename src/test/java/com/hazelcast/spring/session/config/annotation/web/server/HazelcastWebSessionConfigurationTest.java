@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spring.session.config.annotation.web.server;
+
+import java.time.Duration;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spring.session.ReactiveHazelcastSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link HazelcastWebSessionConfiguration}.
+ */
+class HazelcastWebSessionConfigurationTest {
+
+    private static final String MAP_NAME = "spring:test:sessions";
+
+    private static final int MAX_INACTIVE_INTERVAL_IN_SECONDS = 600;
+
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+    }
+
+    @AfterEach
+    void closeContext() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void defaultConfiguration() {
+        registerAndRefresh(DefaultConfiguration.class);
+
+        assertThat(this.context.getBean(ReactiveHazelcastSessionRepository.class)).isNotNull();
+        verify(BaseConfiguration.hazelcastInstance).getMap("spring:session:sessions");
+    }
+
+    @Test
+    void customAnnotationAttributes() {
+        registerAndRefresh(CustomConfiguration.class);
+
+        ReactiveHazelcastSessionRepository repository = this.context.getBean(ReactiveHazelcastSessionRepository.class);
+        assertThat(repository).extracting("sessionMapName").isEqualTo(MAP_NAME);
+        assertThat(repository).extracting("defaultMaxInactiveInterval")
+            .isEqualTo(Duration.ofSeconds(MAX_INACTIVE_INTERVAL_IN_SECONDS));
+        assertThat(repository).extracting("saveMode").isEqualTo(SaveMode.ALWAYS);
+    }
+
+    @Test
+    void sessionRepositoryCustomizer() {
+        registerAndRefresh(SessionRepositoryCustomizerConfiguration.class);
+
+        ReactiveHazelcastSessionRepository repository = this.context.getBean(ReactiveHazelcastSessionRepository.class);
+        assertThat(repository).extracting("defaultMaxInactiveInterval")
+            .isEqualTo(Duration.ofSeconds(MAX_INACTIVE_INTERVAL_IN_SECONDS));
+    }
+
+    private void registerAndRefresh(Class<?>... annotatedClasses) {
+        this.context.register(annotatedClasses);
+        this.context.refresh();
+    }
+
+    @Configuration
+    static class BaseConfiguration {
+
+        static HazelcastInstance hazelcastInstance;
+
+        @Bean
+        @SuppressWarnings("unchecked")
+        HazelcastInstance defaultHazelcastInstance() {
+            hazelcastInstance = mock(HazelcastInstance.class);
+            given(hazelcastInstance.getMap(anyString())).willReturn(mock(IMap.class));
+            given(hazelcastInstance.getConfig()).willReturn(new Config());
+            return hazelcastInstance;
+        }
+
+    }
+
+    @Configuration
+    @EnableHazelcastWebSession
+    static class DefaultConfiguration extends BaseConfiguration {
+
+    }
+
+    @Configuration
+    @EnableHazelcastWebSession(sessionMapName = MAP_NAME, maxInactiveIntervalInSeconds = MAX_INACTIVE_INTERVAL_IN_SECONDS,
+                               saveMode = SaveMode.ALWAYS)
+    static class CustomConfiguration extends BaseConfiguration {
+
+    }
+
+    @Configuration
+    @EnableHazelcastWebSession
+    static class SessionRepositoryCustomizerConfiguration extends BaseConfiguration {
+
+        @Bean
+        SessionRepositoryCustomizer<ReactiveHazelcastSessionRepository> sessionRepositoryCustomizer() {
+            return (sessionRepository) -> sessionRepository
+                .setDefaultMaxInactiveInterval(Duration.ofSeconds(MAX_INACTIVE_INTERVAL_IN_SECONDS));
+        }
+
+    }
+
+}